@@ -28,6 +28,7 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
     
     compileOptions {
@@ -35,6 +36,17 @@ android {
         targetCompatibility = JavaVersion.VERSION_11
     }
     
+    testOptions {
+        // SupabaseClient logs through android.util.Log, which is a stub on the JVM
+        unitTests.isReturnDefaultValues = true
+        // Forward -Dload.* to the load test, which only runs with -Dload.run=true
+        unitTests.all { test ->
+            System.getProperties()
+                .filter { (key, _) -> key.toString().startsWith("load.") }
+                .forEach { (key, value) -> test.systemProperty(key.toString(), value) }
+        }
+    }
+    
     packaging {
         resources {
             excludes += "/META-INF/{AL2.0,LGPL2.1}"
@@ -55,7 +67,6 @@ dependencies {
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
-    implementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
     
     // Gson for JSON parsing
     implementation("com.google.code.gson:gson:2.10.1")
@@ -69,6 +80,7 @@ dependencies {
     
     // Testing
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
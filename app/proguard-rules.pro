@@ -42,10 +42,18 @@
 -keep class * implements com.google.gson.JsonSerializer
 -keep class * implements com.google.gson.JsonDeserializer
 
-# Keep all model classes
--keep class com.example.devroad.Models.** { *; }
--keep class com.example.devroad.Supabase.** { *; }
-
-# Keep Supabase client
--keep class com.example.devroad.Supabase.SupabaseClient { *; }
--keep class com.example.devroad.Supabase.SupabaseClient$* { *; }
\ No newline at end of file
+# Models are (de)serialized by the hand-written adapters in ModelTypeAdapters, and the
+# SupabaseClient request/response classes by those in ApiTypeAdapters, so R8 may shrink
+# and rename them freely.
+# Only the Retrofit service interfaces need their methods and annotations kept.
+-keep interface com.example.devroad.Supabase.SupabaseClient$SupabaseAuthApi { *; }
+-keep interface com.example.devroad.Supabase.SupabaseClient$SupabaseDataApi { *; }
+
+# Strip debug logging from release builds
+-assumenosideeffects class com.example.devroad.services.AppLog {
+    public static void d(...);
+}
+-assumenosideeffects class android.util.Log {
+    public static int d(...);
+    public static int v(...);
+}
\ No newline at end of file
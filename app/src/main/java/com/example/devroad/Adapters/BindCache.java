@@ -0,0 +1,75 @@
+package com.example.devroad.Adapters;
+
+import android.graphics.Color;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BindCache - Values the row binders would otherwise build on every bind: parsed course
+ * colours, premium badge labels and lesson numbers. Each one is made the first time it is
+ * needed, so binding a row whose values have been seen before allocates nothing. Main thread only.
+ */
+final class BindCache {
+    // Values are null for strings that are not colours, so those are not re-parsed either
+    private final Map<String, Integer> colors = new HashMap<>();
+    private int[] premiumScores = new int[8];
+    private String[] premiumLabels = new String[8];
+    private int premiumCount;
+    private String[] numbers = new String[32];
+
+    /**
+     * @return the parsed colour, or null if value is empty or not a colour
+     */
+    Integer color(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        Integer color = colors.get(value);
+        if (color == null && !colors.containsKey(value)) {
+            try {
+                color = Color.parseColor(value);
+            } catch (IllegalArgumentException e) {
+                color = null;
+            }
+            colors.put(value, color);
+        }
+        return color;
+    }
+
+    /**
+     * "🔒 100 pts"; there are only a few distinct required scores, so a linear scan is enough
+     */
+    String premiumLabel(int requiredScore) {
+        for (int i = 0; i < premiumCount; i++) {
+            if (premiumScores[i] == requiredScore) {
+                return premiumLabels[i];
+            }
+        }
+        if (premiumCount == premiumScores.length) {
+            premiumScores = Arrays.copyOf(premiumScores, premiumCount * 2);
+            premiumLabels = Arrays.copyOf(premiumLabels, premiumCount * 2);
+        }
+        String label = "🔒 " + requiredScore + " pts";
+        premiumScores[premiumCount] = requiredScore;
+        premiumLabels[premiumCount] = label;
+        premiumCount++;
+        return label;
+    }
+
+    /**
+     * A positive row number as text
+     */
+    String number(int number) {
+        if (number >= numbers.length) {
+            numbers = Arrays.copyOf(numbers, Math.max(numbers.length * 2, number + 1));
+        }
+        String text = numbers[number];
+        if (text == null) {
+            text = String.valueOf(number);
+            numbers[number] = text;
+        }
+        return text;
+    }
+}
@@ -1,23 +1,49 @@
 package com.example.devroad.Adapters;
 
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.devroad.Models.Cours;
 import com.example.devroad.R;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.Objects;
 
 public class  CoursAdapter extends RecyclerView.Adapter<CoursAdapter.CoursViewHolder> {
 
-    private List<Cours> courses;
+    // Rows are matched by id and only rebound when something they show has changed
+    private static final DiffUtil.ItemCallback<Cours> DIFF_CALLBACK = new DiffUtil.ItemCallback<Cours>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Cours oldItem, @NonNull Cours newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Cours oldItem, @NonNull Cours newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getIcon(), newItem.getIcon())
+                    && Objects.equals(oldItem.getColor(), newItem.getColor())
+                    && oldItem.isPremium() == newItem.isPremium()
+                    && oldItem.getRequiredScore() == newItem.getRequiredScore();
+        }
+    };
+
+    private final AsyncListDiffer<Cours> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final StableIds stableIds = new StableIds();
+    private final BindCache bindCache = new BindCache();
+    // Stable ids of rows that have already slid in; each row animates once, not on every rebind
+    private final BitSet animated = new BitSet();
     private OnCourseClickListener listener;
 
     public interface OnCourseClickListener {
@@ -25,13 +51,19 @@ public class  CoursAdapter extends RecyclerView.Adapter<CoursAdapter.CoursViewHo
     }
 
     public CoursAdapter(List<Cours> courses, OnCourseClickListener listener) {
-        this.courses = courses;
         this.listener = listener;
+        setHasStableIds(true);
+        if (!courses.isEmpty()) {
+            differ.submitList(courses);
+        }
     }
 
+    /**
+     * Diffed against the current rows on a background thread. Only inserted, removed, moved
+     * and changed rows are dispatched, so a refresh that changes nothing binds nothing.
+     */
     public void updateCourses(List<Cours> newCourses) {
-        this.courses = newCourses;
-        notifyDataSetChanged();
+        differ.submitList(newCourses);
     }
 
     @NonNull
@@ -39,22 +71,33 @@ public class  CoursAdapter extends RecyclerView.Adapter<CoursAdapter.CoursViewHo
     public CoursViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_course, parent, false);
-        return new CoursViewHolder(view);
+        return new CoursViewHolder(view, bindCache, listener);
     }
 
     @Override
     public void onBindViewHolder(@NonNull CoursViewHolder holder, int position) {
-        Cours cours = courses.get(position);
-        holder.bind(cours, listener);
+        Cours cours = differ.getCurrentList().get(position);
+        holder.bind(cours);
         
-        // Animate item
-        holder.itemView.setAnimation(AnimationUtils.loadAnimation(
-                holder.itemView.getContext(), R.anim.item_animation_slide_from_right));
+        // Animate item, the first time it is shown
+        int id = (int) getItemId(position);
+        if (id >= 0 && !animated.get(id)) {
+            animated.set(id);
+            holder.slideIn.reset();
+            holder.itemView.startAnimation(holder.slideIn);
+        } else {
+            holder.itemView.clearAnimation();
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(differ.getCurrentList().get(position).getId());
     }
 
     @Override
     public int getItemCount() {
-        return courses.size();
+        return differ.getCurrentList().size();
     }
 
     static class CoursViewHolder extends RecyclerView.ViewHolder {
@@ -63,38 +106,46 @@ public class  CoursAdapter extends RecyclerView.Adapter<CoursAdapter.CoursViewHo
         private TextView titleText;
         private TextView descriptionText;
         private TextView premiumBadge;
+        // Loaded once per holder rather than parsed from XML on every bind
+        private final Animation slideIn;
+        private final int defaultCardColor;
+        private final BindCache bindCache;
+        private Cours cours;
 
-        public CoursViewHolder(@NonNull View itemView) {
+        public CoursViewHolder(@NonNull View itemView, BindCache bindCache, OnCourseClickListener listener) {
             super(itemView);
             cardView = (CardView) itemView;
             iconText = itemView.findViewById(R.id.course_icon);
             titleText = itemView.findViewById(R.id.course_title);
             descriptionText = itemView.findViewById(R.id.course_description);
             premiumBadge = itemView.findViewById(R.id.premium_badge);
+            slideIn = AnimationUtils.loadAnimation(itemView.getContext(), R.anim.item_animation_slide_from_right);
+            defaultCardColor = cardView.getCardBackgroundColor().getDefaultColor();
+            this.bindCache = bindCache;
+            // One listener per holder, reading whichever course is bound at the time
+            itemView.setOnClickListener(v -> {
+                if (cours != null) {
+                    listener.onCourseClick(cours);
+                }
+            });
         }
 
-        public void bind(Cours cours, OnCourseClickListener listener) {
+        public void bind(Cours cours) {
+            this.cours = cours;
             iconText.setText(cours.getIcon());
             titleText.setText(cours.getTitle());
             descriptionText.setText(cours.getDescription());
             
             if (cours.isPremium()) {
                 premiumBadge.setVisibility(View.VISIBLE);
-                premiumBadge.setText("🔒 " + cours.getRequiredScore() + " pts");
+                premiumBadge.setText(bindCache.premiumLabel(cours.getRequiredScore()));
             } else {
                 premiumBadge.setVisibility(View.GONE);
             }
             
-            // Set color if provided
-            if (cours.getColor() != null && !cours.getColor().isEmpty()) {
-                try {
-                    cardView.setCardBackgroundColor(Color.parseColor(cours.getColor()));
-                } catch (Exception e) {
-                    // Use default
-                }
-            }
-            
-            itemView.setOnClickListener(v -> listener.onCourseClick(cours));
+            // Set color if provided, otherwise undo the colour of the course this holder showed before
+            Integer color = bindCache.color(cours.getColor());
+            cardView.setCardBackgroundColor(color != null ? color : defaultCardColor);
         }
     }
 }
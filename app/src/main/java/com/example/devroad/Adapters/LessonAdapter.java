@@ -3,20 +3,45 @@ package com.example.devroad.Adapters;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.AnimationUtils;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.devroad.Models.Lesson;
 import com.example.devroad.R;
 
 import java.util.List;
+import java.util.Objects;
 
 public class LessonAdapter extends RecyclerView.Adapter<LessonAdapter.LessonViewHolder> {
 
-    private List<Lesson> lessons;
+    // Rows are matched by id and only rebound when something they show has changed
+    private static final DiffUtil.ItemCallback<Lesson> DIFF_CALLBACK = new DiffUtil.ItemCallback<Lesson>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Lesson oldItem, @NonNull Lesson newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Lesson oldItem, @NonNull Lesson newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && oldItem.isPremium() == newItem.isPremium()
+                    && oldItem.getRequiredScore() == newItem.getRequiredScore();
+        }
+    };
+    private static final Object PAYLOAD_NUMBER = new Object();
+
+    private final RenumberingCallback updateCallback = new RenumberingCallback();
+    private final AsyncListDiffer<Lesson> differ = new AsyncListDiffer<>(updateCallback,
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+    private final StableIds stableIds = new StableIds();
+    private final BindCache bindCache = new BindCache();
     private OnLessonClickListener listener;
 
     public interface OnLessonClickListener {
@@ -24,13 +49,19 @@ public class LessonAdapter extends RecyclerView.Adapter<LessonAdapter.LessonView
     }
 
     public LessonAdapter(List<Lesson> lessons, OnLessonClickListener listener) {
-        this.lessons = lessons;
         this.listener = listener;
+        setHasStableIds(true);
+        if (!lessons.isEmpty()) {
+            differ.submitList(lessons);
+        }
     }
 
+    /**
+     * Diffed against the current rows on a background thread. Only inserted, removed, moved
+     * and changed rows are dispatched, so a refresh that changes nothing binds nothing.
+     */
     public void updateLessons(List<Lesson> newLessons) {
-        this.lessons = newLessons;
-        notifyDataSetChanged();
+        differ.submitList(newLessons, updateCallback::renumberShiftedRows);
     }
 
     @NonNull
@@ -38,18 +69,82 @@ public class LessonAdapter extends RecyclerView.Adapter<LessonAdapter.LessonView
     public LessonViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_lesson, parent, false);
-        return new LessonViewHolder(view);
+        return new LessonViewHolder(view, bindCache, listener);
     }
 
     @Override
     public void onBindViewHolder(@NonNull LessonViewHolder holder, int position) {
-        Lesson lesson = lessons.get(position);
-        holder.bind(lesson, position + 1, listener);
+        Lesson lesson = differ.getCurrentList().get(position);
+        holder.bind(lesson, position + 1);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull LessonViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && allNumberPayloads(payloads)) {
+            // Same lesson, it only moved
+            holder.bindNumber(position + 1);
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    private static boolean allNumberPayloads(List<Object> payloads) {
+        for (int i = 0; i < payloads.size(); i++) {
+            if (payloads.get(i) != PAYLOAD_NUMBER) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idOf(differ.getCurrentList().get(position).getId());
     }
 
     @Override
     public int getItemCount() {
-        return lessons.size();
+        return differ.getCurrentList().size();
+    }
+
+    /**
+     * Lessons are numbered by position, so rows after an insert, removal or move need their
+     * number redrawn even though their content is unchanged. Appending a page shifts nothing.
+     */
+    private class RenumberingCallback implements ListUpdateCallback {
+        private final AdapterListUpdateCallback adapterCallback = new AdapterListUpdateCallback(LessonAdapter.this);
+        private int firstShifted = Integer.MAX_VALUE;
+
+        @Override
+        public void onInserted(int position, int count) {
+            adapterCallback.onInserted(position, count);
+            firstShifted = Math.min(firstShifted, position + count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            adapterCallback.onRemoved(position, count);
+            firstShifted = Math.min(firstShifted, position);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            adapterCallback.onMoved(fromPosition, toPosition);
+            firstShifted = Math.min(firstShifted, Math.min(fromPosition, toPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            adapterCallback.onChanged(position, count, payload);
+        }
+
+        void renumberShiftedRows() {
+            int count = getItemCount();
+            if (firstShifted < count) {
+                notifyItemRangeChanged(firstShifted, count - firstShifted, PAYLOAD_NUMBER);
+            }
+            firstShifted = Integer.MAX_VALUE;
+        }
     }
 
     static class LessonViewHolder extends RecyclerView.ViewHolder {
@@ -57,27 +152,39 @@ public class LessonAdapter extends RecyclerView.Adapter<LessonAdapter.LessonView
         private TextView titleText;
         private TextView premiumBadge;
         private CardView cardView;
+        private final BindCache bindCache;
+        private Lesson lesson;
 
-        public LessonViewHolder(@NonNull View itemView) {
+        public LessonViewHolder(@NonNull View itemView, BindCache bindCache, OnLessonClickListener listener) {
             super(itemView);
             cardView = (CardView) itemView;
             numberText = itemView.findViewById(R.id.lesson_number);
             titleText = itemView.findViewById(R.id.lesson_title);
             premiumBadge = itemView.findViewById(R.id.premium_badge);
+            this.bindCache = bindCache;
+            // One listener per holder, reading whichever lesson is bound at the time
+            itemView.setOnClickListener(v -> {
+                if (lesson != null) {
+                    listener.onLessonClick(lesson);
+                }
+            });
         }
 
-        public void bind(Lesson lesson, int position, OnLessonClickListener listener) {
-            numberText.setText(String.valueOf(position));
+        public void bind(Lesson lesson, int position) {
+            this.lesson = lesson;
+            bindNumber(position);
             titleText.setText(lesson.getTitle());
             
             if (lesson.isPremium()) {
                 premiumBadge.setVisibility(View.VISIBLE);
-                premiumBadge.setText("🔒 " + lesson.getRequiredScore() + " pts");
+                premiumBadge.setText(bindCache.premiumLabel(lesson.getRequiredScore()));
             } else {
                 premiumBadge.setVisibility(View.GONE);
             }
-            
-            itemView.setOnClickListener(v -> listener.onLessonClick(lesson));
+        }
+
+        void bindNumber(int position) {
+            numberText.setText(bindCache.number(position));
         }
     }
 }
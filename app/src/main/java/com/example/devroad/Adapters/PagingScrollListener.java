@@ -0,0 +1,38 @@
+package com.example.devroad.Adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.devroad.services.ContentPager;
+
+/**
+ * PagingScrollListener - Asks the pager for the next page once the last visible row
+ * comes within prefetchDistance rows of the end of what is loaded.
+ */
+public class PagingScrollListener extends RecyclerView.OnScrollListener {
+
+    private final ContentPager<?> pager;
+    private final int prefetchDistance;
+
+    public PagingScrollListener(ContentPager<?> pager, int prefetchDistance) {
+        this.pager = pager;
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        // Also called with dy == 0 after a layout, which fills a screen taller than one page
+        if (pager.isLoading() || !pager.hasMore()) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager == null) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= layoutManager.getItemCount() - 1 - prefetchDistance) {
+            pager.loadNextPage();
+        }
+    }
+}
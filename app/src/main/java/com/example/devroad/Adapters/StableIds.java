@@ -0,0 +1,27 @@
+package com.example.devroad.Adapters;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StableIds - Maps model ids (Cours.id, Lesson.id) to the long ids RecyclerView wants for
+ * stable ids. A number is handed out the first time an id is seen and kept for the life of
+ * the adapter, so unlike a hashCode two rows can never share one. Main thread only.
+ */
+final class StableIds {
+    private final Map<String, Long> ids = new HashMap<>();
+
+    long idOf(String key) {
+        if (key == null) {
+            return RecyclerView.NO_ID;
+        }
+        Long id = ids.get(key);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
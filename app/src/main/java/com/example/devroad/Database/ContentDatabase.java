@@ -0,0 +1,362 @@
+package com.example.devroad.Database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.devroad.Models.Cours;
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.Flashcard;
+import com.example.devroad.Models.Lesson;
+import com.example.devroad.Supabase.ModelTypeAdapters;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * ContentDatabase - On-device SQLite copy of the course catalog (cours, lessons,
+ * flashcards, exercises). Each row is stored as the JSON returned by PostgREST,
+ * indexed by id, parent id and order_index so screens can be served without a round trip.
+ */
+public class ContentDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "devroad_content.db";
+    private static final int DATABASE_VERSION = 2;
+
+    private static final String COL_ID = "id";
+    private static final String COL_PARENT_ID = "parent_id";
+    private static final String COL_ORDER_INDEX = "order_index";
+    private static final String COL_JSON = "json";
+
+    // Delta sync high-water marks, one row per content table
+    private static final String TABLE_SYNC_STATE = "sync_state";
+    private static final String COL_TABLE_NAME = "table_name";
+    private static final String COL_UPDATED_AT = "updated_at";
+    private static final String COL_LAST_ID = "last_id";
+    private static final String COL_DELETED_AT = "deleted_at";
+    private static final String COL_COMPLETE = "complete";
+
+    public static final Table<Cours> COURS = new Table<>("cours", Cours.class,
+            Cours::getId, c -> null, Cours::getOrderIndex, Cours::getUpdatedAt);
+    public static final Table<Lesson> LESSONS = new Table<>("lessons", Lesson.class,
+            Lesson::getId, Lesson::getCoursId, Lesson::getOrderIndex, Lesson::getUpdatedAt);
+    public static final Table<Flashcard> FLASHCARDS = new Table<>("flashcards", Flashcard.class,
+            Flashcard::getId, Flashcard::getLessonId, Flashcard::getOrderIndex, Flashcard::getUpdatedAt);
+    public static final Table<Exercise> EXERCISES = new Table<>("exercises", Exercise.class,
+            Exercise::getId, Exercise::getLessonId, Exercise::getOrderIndex, Exercise::getUpdatedAt);
+
+    private static final Table<?>[] TABLES = {COURS, LESSONS, FLASHCARDS, EXERCISES};
+
+    private static ContentDatabase instance;
+    private final Gson gson = ModelTypeAdapters.getGson();
+
+    private ContentDatabase(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized ContentDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new ContentDatabase(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        for (Table<?> table : TABLES) {
+            db.execSQL("CREATE TABLE " + table.name + " ("
+                    + COL_ID + " TEXT PRIMARY KEY, "
+                    + COL_PARENT_ID + " TEXT, "
+                    + COL_ORDER_INDEX + " INTEGER NOT NULL DEFAULT 0, "
+                    + COL_JSON + " TEXT NOT NULL)");
+            db.execSQL("CREATE INDEX idx_" + table.name + "_parent ON " + table.name
+                    + " (" + COL_PARENT_ID + ", " + COL_ORDER_INDEX + ")");
+        }
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + COL_TABLE_NAME + " TEXT PRIMARY KEY, "
+                + COL_UPDATED_AT + " TEXT, "
+                + COL_LAST_ID + " TEXT, "
+                + COL_DELETED_AT + " TEXT, "
+                + COL_COMPLETE + " INTEGER NOT NULL DEFAULT 0)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Content is a cache of the server, so it is safe to rebuild it
+        for (Table<?> table : TABLES) {
+            db.execSQL("DROP TABLE IF EXISTS " + table.name);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SYNC_STATE);
+        onCreate(db);
+    }
+
+    /**
+     * Read the cached rows of a table, ordered by order_index.
+     * A null parentId reads the whole table.
+     */
+    public <T> List<T> readRows(Table<T> table, String parentId) {
+        List<T> rows = new ArrayList<>();
+        for (String json : readJson(table, parentId)) {
+            rows.add(gson.fromJson(json, table.type));
+        }
+        return rows;
+    }
+
+    /**
+     * Read up to limit rows after the (order_index, id) of afterRow, in list order.
+     * A null afterRow reads the first page; a null parentId pages through the whole table.
+     */
+    public <T> List<T> readPage(Table<T> table, String parentId, T afterRow, int limit) {
+        StringBuilder selection = new StringBuilder();
+        List<String> args = new ArrayList<>();
+        selectRange(table, parentId, afterRow, null, selection, args);
+
+        List<T> rows = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(table.name, new String[]{COL_JSON},
+                selection.length() > 0 ? selection.toString() : null, args.toArray(new String[0]),
+                null, null, COL_ORDER_INDEX + " ASC, " + COL_ID + " ASC", String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                rows.add(gson.fromJson(cursor.getString(0), table.type));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Replace the cached rows a fresh server page covers: everything after afterRow up to the
+     * page's last row, or to the end of the list if this was the last page. Cached rows in that
+     * range the server no longer returned are deleted.
+     */
+    public <T> void replacePage(Table<T> table, String parentId, T afterRow, List<T> rows, boolean lastPage) {
+        StringBuilder selection = new StringBuilder();
+        List<String> args = new ArrayList<>();
+        T upTo = lastPage || rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        selectRange(table, parentId, afterRow, upTo, selection, args);
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(table.name, selection.length() > 0 ? selection.toString() : null,
+                    args.toArray(new String[0]));
+            upsertRows(table, rows);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Rows under parentId (all if null) strictly after afterRow and up to and including
+     * upToRow in (order_index, id) order; a null bound leaves that end open
+     */
+    private static <T> void selectRange(Table<T> table, String parentId, T afterRow, T upToRow,
+                                        StringBuilder selection, List<String> args) {
+        if (parentId != null) {
+            selection.append(COL_PARENT_ID).append(" = ?");
+            args.add(parentId);
+        }
+        if (afterRow != null) {
+            String order = String.valueOf(table.orderOf.applyAsInt(afterRow));
+            if (selection.length() > 0) {
+                selection.append(" AND ");
+            }
+            selection.append("(").append(COL_ORDER_INDEX).append(" > ? OR (")
+                    .append(COL_ORDER_INDEX).append(" = ? AND ").append(COL_ID).append(" > ?))");
+            args.add(order);
+            args.add(order);
+            args.add(table.idOf.apply(afterRow));
+        }
+        if (upToRow != null) {
+            String order = String.valueOf(table.orderOf.applyAsInt(upToRow));
+            if (selection.length() > 0) {
+                selection.append(" AND ");
+            }
+            selection.append("(").append(COL_ORDER_INDEX).append(" < ? OR (")
+                    .append(COL_ORDER_INDEX).append(" = ? AND ").append(COL_ID).append(" <= ?))");
+            args.add(order);
+            args.add(order);
+            args.add(table.idOf.apply(upToRow));
+        }
+    }
+
+    /**
+     * Replace the cached rows under parentId with a fresh server response.
+     *
+     * @return true if the stored content actually changed
+     */
+    public <T> boolean replaceRows(Table<T> table, String parentId, List<T> rows) {
+        List<String> fresh = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            fresh.add(gson.toJson(row));
+        }
+        if (fresh.equals(readJson(table, parentId))) {
+            return false;
+        }
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (parentId == null) {
+                db.delete(table.name, null, null);
+            } else {
+                db.delete(table.name, COL_PARENT_ID + " = ?", new String[]{parentId});
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                ContentValues values = new ContentValues();
+                values.put(COL_ID, table.idOf.apply(row));
+                values.put(COL_PARENT_ID, table.parentOf.apply(row));
+                values.put(COL_ORDER_INDEX, table.orderOf.applyAsInt(row));
+                values.put(COL_JSON, fresh.get(i));
+                db.insertWithOnConflict(table.name, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return true;
+    }
+
+    /**
+     * Insert or update rows by id, e.g. a page of changes from delta sync
+     *
+     * @return how many rows were inserted or actually changed; rows stored as-is are not counted
+     */
+    public <T> int upsertRows(Table<T> table, List<T> rows) {
+        int changed = 0;
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (T row : rows) {
+                String id = table.idOf.apply(row);
+                String json = gson.toJson(row);
+                ContentValues values = new ContentValues();
+                values.put(COL_ID, id);
+                values.put(COL_PARENT_ID, table.parentOf.apply(row));
+                values.put(COL_ORDER_INDEX, table.orderOf.applyAsInt(row));
+                values.put(COL_JSON, json);
+                if (db.insertWithOnConflict(table.name, null, values, SQLiteDatabase.CONFLICT_IGNORE) != -1) {
+                    changed++;
+                } else {
+                    changed += db.update(table.name, values, COL_ID + " = ? AND " + COL_JSON + " IS NOT ?",
+                            new String[]{id, json});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return changed;
+    }
+
+    /**
+     * @return how many of the rows were present and removed
+     */
+    public int deleteRows(Table<?> table, List<String> ids) {
+        int deleted = 0;
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) {
+                deleted += db.delete(table.name, COL_ID + " = ?", new String[]{id});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return deleted;
+    }
+
+    public SyncState getSyncState(Table<?> table) {
+        SyncState state = new SyncState();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_SYNC_STATE,
+                new String[]{COL_UPDATED_AT, COL_LAST_ID, COL_DELETED_AT, COL_COMPLETE},
+                COL_TABLE_NAME + " = ?", new String[]{table.name}, null, null, null)) {
+            if (cursor.moveToFirst()) {
+                state.updatedAt = cursor.getString(0);
+                state.lastId = cursor.getString(1);
+                state.deletedAt = cursor.getString(2);
+                state.complete = cursor.getInt(3) != 0;
+            }
+        }
+        return state;
+    }
+
+    public void putSyncState(Table<?> table, SyncState state) {
+        ContentValues values = new ContentValues();
+        values.put(COL_TABLE_NAME, table.name);
+        values.put(COL_UPDATED_AT, state.updatedAt);
+        values.put(COL_LAST_ID, state.lastId);
+        values.put(COL_DELETED_AT, state.deletedAt);
+        values.put(COL_COMPLETE, state.complete ? 1 : 0);
+        getWritableDatabase().insertWithOnConflict(TABLE_SYNC_STATE, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private List<String> readJson(Table<?> table, String parentId) {
+        List<String> rows = new ArrayList<>();
+        String selection = parentId == null ? null : COL_PARENT_ID + " = ?";
+        String[] args = parentId == null ? null : new String[]{parentId};
+
+        try (Cursor cursor = getReadableDatabase().query(table.name, new String[]{COL_JSON},
+                selection, args, null, null, COL_ORDER_INDEX + " ASC")) {
+            while (cursor.moveToNext()) {
+                rows.add(cursor.getString(0));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Delta sync position for one table: the (updated_at, id) of the last row merged,
+     * the last tombstone applied, and whether the initial full sync has finished.
+     */
+    public static class SyncState {
+        public String updatedAt;
+        public String lastId;
+        public String deletedAt;
+        public boolean complete;
+    }
+
+    /**
+     * Describes how a model maps onto its local table
+     */
+    public static final class Table<T> {
+        final String name;
+        final Class<T> type;
+        final Function<T, String> idOf;
+        final Function<T, String> parentOf;
+        final ToIntFunction<T> orderOf;
+        final Function<T, String> updatedAtOf;
+
+        Table(String name, Class<T> type, Function<T, String> idOf, Function<T, String> parentOf,
+              ToIntFunction<T> orderOf, Function<T, String> updatedAtOf) {
+            this.name = name;
+            this.type = type;
+            this.idOf = idOf;
+            this.parentOf = parentOf;
+            this.orderOf = orderOf;
+            this.updatedAtOf = updatedAtOf;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String idOf(T row) {
+            return idOf.apply(row);
+        }
+
+        public int orderOf(T row) {
+            return orderOf.applyAsInt(row);
+        }
+
+        public String updatedAtOf(T row) {
+            return updatedAtOf.apply(row);
+        }
+    }
+}
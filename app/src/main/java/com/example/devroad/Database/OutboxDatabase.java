@@ -0,0 +1,182 @@
+package com.example.devroad.Database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OutboxDatabase - Durable queue of writes that still have to reach Supabase.
+ * Kept apart from ContentDatabase because, unlike cached content, pending writes
+ * must survive schema upgrades.
+ */
+public class OutboxDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "devroad_outbox.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_MUTATIONS = "mutations";
+    private static final String COL_KEY = "mutation_key";
+    private static final String COL_KIND = "kind";
+    private static final String COL_PAYLOAD = "payload";
+    private static final String COL_ATTEMPTS = "attempts";
+    private static final String COL_NEXT_ATTEMPT_AT = "next_attempt_at";
+    private static final String COL_CREATED_AT = "created_at";
+
+    private static OutboxDatabase instance;
+
+    private OutboxDatabase(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized OutboxDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new OutboxDatabase(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_MUTATIONS + " ("
+                + COL_KEY + " TEXT PRIMARY KEY, "
+                + COL_KIND + " TEXT NOT NULL, "
+                + COL_PAYLOAD + " TEXT NOT NULL, "
+                + COL_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_NEXT_ATTEMPT_AT + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_CREATED_AT + " INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // No migrations yet
+    }
+
+    /**
+     * Insert or replace the pending mutation with this key. Replacing keeps the original
+     * queue position but resets the retry state, since the payload is new.
+     */
+    public void put(Mutation mutation) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long createdAt = mutation.createdAt;
+            try (Cursor cursor = db.query(TABLE_MUTATIONS, new String[]{COL_CREATED_AT},
+                    COL_KEY + " = ?", new String[]{mutation.key}, null, null, null)) {
+                if (cursor.moveToFirst()) {
+                    createdAt = cursor.getLong(0);
+                }
+            }
+
+            ContentValues values = new ContentValues();
+            values.put(COL_KEY, mutation.key);
+            values.put(COL_KIND, mutation.kind);
+            values.put(COL_PAYLOAD, mutation.payload);
+            values.put(COL_ATTEMPTS, 0);
+            values.put(COL_NEXT_ATTEMPT_AT, 0L);
+            values.put(COL_CREATED_AT, createdAt);
+            db.insertWithOnConflict(TABLE_MUTATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public Mutation get(String key) {
+        List<Mutation> rows = query(COL_KEY + " = ?", new String[]{key});
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Mutations whose backoff has elapsed, oldest first
+     */
+    public List<Mutation> getDue(long now) {
+        return query(COL_NEXT_ATTEMPT_AT + " <= ?", new String[]{String.valueOf(now)});
+    }
+
+    /**
+     * Every pending mutation of one kind, due or not, oldest first
+     */
+    public List<Mutation> getByKind(String kind) {
+        return query(COL_KIND + " = ?", new String[]{kind});
+    }
+
+    /**
+     * Earliest scheduled retry, or -1 when the outbox is empty
+     */
+    public long getNextAttemptAt() {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT MIN(" + COL_NEXT_ATTEMPT_AT + ") FROM " + TABLE_MUTATIONS, null)) {
+            if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Make every pending mutation due now, e.g. when connectivity returns
+     */
+    public void resetBackoff() {
+        ContentValues values = new ContentValues();
+        values.put(COL_NEXT_ATTEMPT_AT, 0L);
+        getWritableDatabase().update(TABLE_MUTATIONS, values, null, null);
+    }
+
+    public void markFailed(Mutation mutation, long nextAttemptAt) {
+        ContentValues values = new ContentValues();
+        values.put(COL_ATTEMPTS, mutation.attempts + 1);
+        values.put(COL_NEXT_ATTEMPT_AT, nextAttemptAt);
+        // Only if it was not replaced by a newer payload meanwhile
+        getWritableDatabase().update(TABLE_MUTATIONS, values,
+                COL_KEY + " = ? AND " + COL_PAYLOAD + " = ?",
+                new String[]{mutation.key, mutation.payload});
+    }
+
+    public void delete(Mutation mutation) {
+        getWritableDatabase().delete(TABLE_MUTATIONS,
+                COL_KEY + " = ? AND " + COL_PAYLOAD + " = ?",
+                new String[]{mutation.key, mutation.payload});
+    }
+
+    private List<Mutation> query(String selection, String[] args) {
+        List<Mutation> rows = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_MUTATIONS,
+                new String[]{COL_KEY, COL_KIND, COL_PAYLOAD, COL_ATTEMPTS, COL_CREATED_AT},
+                selection, args, null, null, COL_CREATED_AT + " ASC")) {
+            while (cursor.moveToNext()) {
+                Mutation mutation = new Mutation(cursor.getString(0), cursor.getString(1),
+                        cursor.getString(2), cursor.getLong(4));
+                mutation.attempts = cursor.getInt(3);
+                rows.add(mutation);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * One pending write. The key identifies what it overwrites, so a newer mutation
+     * with the same key coalesces with (replaces) an older one.
+     */
+    public static class Mutation {
+        public final String key;
+        public final String kind;
+        public final String payload;
+        public final long createdAt;
+        int attempts;
+
+        public Mutation(String key, String kind, String payload, long createdAt) {
+            this.key = key;
+            this.kind = kind;
+            this.payload = payload;
+            this.createdAt = createdAt;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+}
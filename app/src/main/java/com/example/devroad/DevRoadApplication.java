@@ -0,0 +1,57 @@
+package com.example.devroad;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.util.Log;
+
+import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.services.ContentRepository;
+import com.example.devroad.services.NetworkStatsReceiver;
+import com.example.devroad.services.ProgressOutbox;
+
+public class DevRoadApplication extends Application {
+    private static final String TAG = "DevRoadApplication";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Must run before any activity touches SupabaseClient.getInstance()
+        SupabaseClient.init(this);
+        // Connect to Supabase while the first activity inflates
+        SupabaseClient.getInstance().warmUp();
+        SessionManager sessionManager = new SessionManager(this);
+        SupabaseClient supabaseClient = SupabaseClient.getInstance();
+        supabaseClient.setSession(sessionManager.getAccessToken(), sessionManager.getRefreshToken());
+        supabaseClient.setTokenListener((accessToken, refreshToken) -> {
+            // Persist refreshed tokens unless the user logged out meanwhile
+            if (sessionManager.isLoggedIn()) {
+                sessionManager.updateTokens(accessToken, refreshToken);
+            }
+        });
+
+        // Deliver progress left over from previous sessions
+        ProgressOutbox.getInstance(this).start();
+
+        // Pull catalog changes since the last run (the whole catalog on first launch)
+        ContentRepository.getInstance(this).syncAll();
+
+        if (BuildConfig.DEBUG) {
+            NetworkStatsReceiver.register(this);
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            // App went to background: report how many requests and bytes were saved this session
+            SupabaseClient client = SupabaseClient.getInstance();
+            Log.i(TAG, "HTTP cache: " + client.getCachePolicy().summary()
+                    + ", coalesced requests saved=" + client.getSingleFlight().getSavedRequestCount());
+            Log.i(TAG, "Connections: " + client.getConnectionStats().summary());
+            Log.i(TAG, "Circuits: " + client.getCircuitBreaker().summary());
+            // Per-route latency and size histograms, for adb pull
+            NetworkStatsReceiver.dumpAsync(this);
+        }
+    }
+}
@@ -14,19 +14,16 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
 import com.example.devroad.Models.Exercise;
-import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.Models.ExercisePayload;
+import com.example.devroad.services.ContentRepository;
+import com.example.devroad.services.ExerciseGrader;
+import com.example.devroad.services.ProgressOutbox;
 import com.example.devroad.services.SoundManager;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class ExerciseActivity extends AppCompatActivity {
     
     private TextView lessonTitleText;
@@ -41,10 +38,13 @@ public class ExerciseActivity extends AppCompatActivity {
     private List<Exercise> exercises = new ArrayList<>();
     private int currentIndex = 0;
     private int totalScore = 0;
+    // False while the lesson bundle is still streaming in after its first page
+    private boolean exercisesComplete = false;
+    private boolean waitingForMore = false;
+    private String streamError;
     
     private SessionManager sessionManager;
     private SoundManager soundManager;
-    private Gson gson = new Gson();
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -78,36 +78,91 @@ public class ExerciseActivity extends AppCompatActivity {
     private void loadExercises() {
         progressBar.setVisibility(View.VISIBLE);
         
-        SupabaseClient.getInstance().getDataApi()
-                .getExercisesByLesson("eq." + lessonId, "*", "order_index.asc")
-                .enqueue(new Callback<List<Exercise>>() {
+        ContentRepository.getInstance(this).getExercises(lessonId,
+                new ContentRepository.ContentCallback<List<Exercise>>() {
                     @Override
-                    public void onResponse(Call<List<Exercise>> call, Response<List<Exercise>> response) {
+                    public void onPartialData(List<Exercise> data) {
+                        // First page of a lesson that is still streaming: start on it, the
+                        // rest extends the list in onData
+                        if (exercises.isEmpty() && !data.isEmpty()) {
+                            progressBar.setVisibility(View.GONE);
+                            exercises = data;
+                            displayExercise(0);
+                        }
+                    }
+                    
+                    @Override
+                    public void onData(List<Exercise> data, boolean fromCache) {
                         progressBar.setVisibility(View.GONE);
+                        exercisesComplete = true;
                         
-                        if (response.isSuccessful() && response.body() != null) {
-                            exercises = response.body();
-                            if (!exercises.isEmpty()) {
-                                displayExercise(0);
-                            } else {
-                                Toast.makeText(ExerciseActivity.this, 
-                                        "No exercises available", 
-                                        Toast.LENGTH_SHORT).show();
+                        // Don't swap exercises under the user once the lesson has started,
+                        // but let the rest of a streamed lesson extend the first page
+                        if (!exercises.isEmpty()) {
+                            if (!fromCache && data.size() > exercises.size()
+                                    && data.get(exercises.size() - 1).getId()
+                                            .equals(exercises.get(exercises.size() - 1).getId())) {
+                                exercises = data;
+                                progressText.setText((currentIndex + 1) + " / " + exercises.size());
+                            }
+                            if (waitingForMore) {
+                                displayExercise(currentIndex + 1);
                             }
+                            return;
+                        }
+                        exercises = data;
+                        if (!exercises.isEmpty()) {
+                            displayExercise(0);
+                        } else {
+                            Toast.makeText(ExerciseActivity.this, 
+                                    "No exercises available", 
+                                    Toast.LENGTH_SHORT).show();
                         }
                     }
                     
                     @Override
-                    public void onFailure(Call<List<Exercise>> call, Throwable t) {
+                    public void onError(String message) {
                         progressBar.setVisibility(View.GONE);
+                        if (!exercises.isEmpty()) {
+                            // The first page is already running; only stop at its end
+                            streamError = message;
+                            if (waitingForMore) {
+                                showRestUnavailable();
+                            }
+                            return;
+                        }
+                        Toast.makeText(ExerciseActivity.this, 
+                                "Error: " + message, 
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    
+                    @Override
+                    public void onStale(String message) {
+                        // Saved content stays on screen, flag that it may be out of date
                         Toast.makeText(ExerciseActivity.this, 
-                                "Error: " + t.getMessage(), 
+                                "Showing saved content: " + message, 
                                 Toast.LENGTH_SHORT).show();
                     }
                 });
     }
     
     private void displayExercise(int index) {
+        if (!exercises.isEmpty() && index >= exercises.size() && !exercisesComplete) {
+            // Reached the end of a page while the rest of the lesson is still streaming
+            waitingForMore = true;
+            submitButton.setEnabled(false);
+            exerciseContainer.removeAllViews();
+            if (streamError != null) {
+                showRestUnavailable();
+            } else {
+                questionText.setText("Loading more exercises...");
+                progressBar.setVisibility(View.VISIBLE);
+            }
+            return;
+        }
+        waitingForMore = false;
+        submitButton.setEnabled(true);
+        
         if (exercises.isEmpty() || index >= exercises.size()) {
             // Finished all exercises
             showResults();
@@ -138,16 +193,21 @@ public class ExerciseActivity extends AppCompatActivity {
         }
     }
     
+    private void showRestUnavailable() {
+        progressBar.setVisibility(View.GONE);
+        questionText.setText("Couldn't load the rest of this lesson. Go back and try again.");
+        Toast.makeText(this, "Error: " + streamError, Toast.LENGTH_SHORT).show();
+    }
+    
     private void setupDragDropExercise(Exercise exercise) {
-        // Parse data: {"items": ["item1", "item2"], "targets": ["target1", "target2"]}
-        DragDropData data = gson.fromJson(exercise.getData(), DragDropData.class);
+        ExercisePayload.DragDrop data = (ExercisePayload.DragDrop) exercise.getPayload();
         
         LinearLayout itemsLayout = new LinearLayout(this);
         itemsLayout.setOrientation(LinearLayout.VERTICAL);
         itemsLayout.setPadding(16, 16, 16, 16);
         
         // Targets
-        for (String target : data.targets) {
+        for (String target : data.getTargets()) {
             CardView targetCard = createDragTarget(target);
             itemsLayout.addView(targetCard);
         }
@@ -159,7 +219,7 @@ public class ExerciseActivity extends AppCompatActivity {
         itemsLayout.addView(spacer);
         
         // Items to drag
-        List<String> shuffledItems = new ArrayList<>(data.items);
+        List<String> shuffledItems = new ArrayList<>(data.getItems());
         Collections.shuffle(shuffledItems);
         
         LinearLayout draggableLayout = new LinearLayout(this);
@@ -247,15 +307,14 @@ public class ExerciseActivity extends AppCompatActivity {
     }
     
     private void setupMultipleChoiceExercise(Exercise exercise) {
-        // Parse data: {"options": ["option1", "option2", "option3", "option4"]}
-        MultipleChoiceData data = gson.fromJson(exercise.getData(), MultipleChoiceData.class);
+        ExercisePayload.MultipleChoice data = (ExercisePayload.MultipleChoice) exercise.getPayload();
         
         LinearLayout optionsLayout = new LinearLayout(this);
         optionsLayout.setOrientation(LinearLayout.VERTICAL);
         optionsLayout.setPadding(16, 16, 16, 16);
         
-        for (int i = 0; i < data.options.size(); i++) {
-            String option = data.options.get(i);
+        for (int i = 0; i < data.getOptions().size(); i++) {
+            String option = data.getOptions().get(i);
             CardView optionCard = createChoiceOption(option, i);
             optionsLayout.addView(optionCard);
         }
@@ -317,18 +376,17 @@ public class ExerciseActivity extends AppCompatActivity {
     }
     
     private void setupFillBlanksExercise(Exercise exercise) {
-        // Parse data: {"blanks": [{"text": "The ___ is", "options": ["sun", "moon"]}]}
-        FillBlanksData data = gson.fromJson(exercise.getData(), FillBlanksData.class);
+        ExercisePayload.FillBlanks data = (ExercisePayload.FillBlanks) exercise.getPayload();
         
         LinearLayout mainLayout = new LinearLayout(this);
         mainLayout.setOrientation(LinearLayout.VERTICAL);
         mainLayout.setPadding(16, 16, 16, 16);
         
-        for (int i = 0; i < data.blanks.size(); i++) {
-            BlankItem blank = data.blanks.get(i);
+        for (int i = 0; i < data.getBlanks().size(); i++) {
+            ExercisePayload.Blank blank = data.getBlanks().get(i);
             
             TextView textView = new TextView(this);
-            textView.setText(blank.text);
+            textView.setText(blank.getText());
             textView.setTextSize(16);
             textView.setPadding(0, 16, 0, 8);
             mainLayout.addView(textView);
@@ -336,7 +394,7 @@ public class ExerciseActivity extends AppCompatActivity {
             LinearLayout optionsLayout = new LinearLayout(this);
             optionsLayout.setOrientation(LinearLayout.HORIZONTAL);
             
-            for (String option : blank.options) {
+            for (String option : blank.getOptions()) {
                 Button optionBtn = createBlankOption(option, i);
                 optionsLayout.addView(optionBtn);
             }
@@ -374,10 +432,9 @@ public class ExerciseActivity extends AppCompatActivity {
     }
     
     private void setupArrangeCodeExercise(Exercise exercise) {
-        // Parse data: {"lines": ["line1", "line2", "line3"]}
-        ArrangeCodeData data = gson.fromJson(exercise.getData(), ArrangeCodeData.class);
+        ExercisePayload.ArrangeCode data = (ExercisePayload.ArrangeCode) exercise.getPayload();
         
-        List<String> shuffledLines = new ArrayList<>(data.lines);
+        List<String> shuffledLines = new ArrayList<>(data.getLines());
         Collections.shuffle(shuffledLines);
         
         LinearLayout codeLayout = new LinearLayout(this);
@@ -441,22 +498,7 @@ public class ExerciseActivity extends AppCompatActivity {
     
     private void checkAnswer() {
         Exercise exercise = exercises.get(currentIndex);
-        boolean isCorrect = false;
-        
-        switch (exercise.getType()) {
-            case "drag_drop":
-                isCorrect = checkDragDropAnswer(exercise);
-                break;
-            case "multiple_choice":
-                isCorrect = checkMultipleChoiceAnswer(exercise);
-                break;
-            case "fill_blanks":
-                isCorrect = checkFillBlanksAnswer(exercise);
-                break;
-            case "arrange_code":
-                isCorrect = checkArrangeCodeAnswer(exercise);
-                break;
-        }
+        boolean isCorrect = ExerciseGrader.isCorrect(exercise, readResponse(exercise));
         
         if (isCorrect) {
             // Play correct answer sound with cool effect
@@ -514,215 +556,91 @@ public class ExerciseActivity extends AppCompatActivity {
         }, 1500);
     }
     
-    private boolean checkDragDropAnswer(Exercise exercise) {
-        // Simple check: verify all targets have been filled
-        for (int i = 0; i < exerciseContainer.getChildCount(); i++) {
-            View child = exerciseContainer.getChildAt(i);
-            if (child instanceof LinearLayout) {
-                LinearLayout layout = (LinearLayout) child;
-                for (int j = 0; j < layout.getChildCount(); j++) {
-                    View item = layout.getChildAt(j);
-                    if (item.getTag() != null && item.getTag().toString().startsWith("target_")) {
-                        return false; // Not all filled
+    /**
+     * Read what the user picked off the exercise views, in the form ExerciseGrader expects
+     */
+    private List<String> readResponse(Exercise exercise) {
+        List<String> response = new ArrayList<>();
+        if (exerciseContainer.getChildCount() == 0) {
+            return response;
+        }
+        LinearLayout layout = (LinearLayout) exerciseContainer.getChildAt(0);
+        
+        switch (exercise.getType()) {
+            case "drag_drop":
+                // Targets are tagged target_<text> until an item is dropped on them
+                for (int i = 0; i < layout.getChildCount(); i++) {
+                    Object tag = layout.getChildAt(i).getTag();
+                    if (tag == null) {
+                        continue;
+                    }
+                    if (tag.toString().startsWith("target_")) {
+                        response.add(null);
+                    } else if (tag.toString().startsWith("dropped_")) {
+                        response.add(tag.toString().substring("dropped_".length()));
                     }
                 }
-            }
-        }
-        return true;
-    }
-    
-    private boolean checkMultipleChoiceAnswer(Exercise exercise) {
-        LinearLayout container = (LinearLayout) exerciseContainer.getChildAt(0);
-        for (int i = 0; i < container.getChildCount(); i++) {
-            View child = container.getChildAt(i);
-            if (child.getTag() != null && child.getTag().toString().startsWith("selected_")) {
-                String selected = child.getTag().toString().replace("selected_", "");
-                return selected.equals(exercise.getAnswer());
-            }
-        }
-        return false;
-    }
-    
-    private boolean checkFillBlanksAnswer(Exercise exercise) {
-        // Check if answer matches selected options
-        return exercise.getAnswer().equals("correct"); // Simplified
-    }
-    
-    private boolean checkArrangeCodeAnswer(Exercise exercise) {
-        ArrangeCodeData data = gson.fromJson(exercise.getData(), ArrangeCodeData.class);
-        LinearLayout codeContainer = (LinearLayout) exerciseContainer.getChildAt(0);
-        
-        for (int i = 0; i < codeContainer.getChildCount(); i++) {
-            View child = codeContainer.getChildAt(i);
-            if (!child.getTag().toString().equals(data.lines.get(i))) {
-                return false;
-            }
+                break;
+            case "multiple_choice":
+                for (int i = 0; i < layout.getChildCount(); i++) {
+                    Object tag = layout.getChildAt(i).getTag();
+                    if (tag != null && tag.toString().startsWith("selected_")) {
+                        response.add(tag.toString().substring("selected_".length()));
+                        break;
+                    }
+                }
+                break;
+            case "fill_blanks":
+                // Question text and option row alternate; buttons are tagged blank_<i>_selected_<text>
+                for (int i = 0; i < layout.getChildCount(); i++) {
+                    View child = layout.getChildAt(i);
+                    if (!(child instanceof LinearLayout)) {
+                        continue;
+                    }
+                    String selected = null;
+                    LinearLayout options = (LinearLayout) child;
+                    for (int j = 0; j < options.getChildCount(); j++) {
+                        String tag = String.valueOf(options.getChildAt(j).getTag());
+                        int marker = tag.indexOf("_selected_");
+                        if (marker >= 0) {
+                            selected = tag.substring(marker + "_selected_".length());
+                        }
+                    }
+                    response.add(selected);
+                }
+                break;
+            case "arrange_code":
+                for (int i = 0; i < layout.getChildCount(); i++) {
+                    response.add(String.valueOf(layout.getChildAt(i).getTag()));
+                }
+                break;
         }
-        return true;
+        return response;
     }
     
     private void showResults() {
-        // Update user score in session
-        int newScore = sessionManager.getScore() + totalScore;
-        sessionManager.updateScore(newScore);
+        // Shown straight away; the outbox replaces it with the server's total once the points are in
+        sessionManager.updateScore(sessionManager.getScore() + totalScore);
         
         Toast.makeText(this, 
                 "Exercise completed! Total score: " + totalScore + " points", 
                 Toast.LENGTH_LONG).show();
         
-        // Save lesson progress to database and update user score
-        saveLessonProgressAndUpdateScore(sessionManager.getUserId(), lessonId, newScore);
-    }
-    
-    /**
-     * Save lesson progress to database and update user score
-     */
-    private void saveLessonProgressAndUpdateScore(String userId, String lessonId, int newTotalScore) {
-        try {
-            SupabaseClient supabaseClient = SupabaseClient.getInstance();
-            
-            // First, check if progress already exists for this lesson
-            supabaseClient.getDataApi().getUserProgress(userId, "*").enqueue(new Callback<List<com.example.devroad.Models.UserProgress>>() {
-                @Override
-                public void onResponse(Call<List<com.example.devroad.Models.UserProgress>> call, Response<List<com.example.devroad.Models.UserProgress>> response) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        List<com.example.devroad.Models.UserProgress> progressList = response.body();
-                        
-                        // Check if this lesson progress already exists
-                        com.example.devroad.Models.UserProgress existingProgress = null;
-                        for (com.example.devroad.Models.UserProgress p : progressList) {
-                            if (p.getLessonId().equals(lessonId)) {
-                                existingProgress = p;
-                                break;
-                            }
-                        }
-                        
-                        // Create or update progress
-                        com.example.devroad.Models.UserProgress progress = new com.example.devroad.Models.UserProgress();
-                        progress.setUserId(userId);
-                        progress.setLessonId(lessonId);
-                        progress.setCompleted(true);
-                        progress.setScore(totalScore);
-                        
-                        // Post the progress (will create new or update existing via DB constraints)
-                        supabaseClient.getDataApi().createProgress(progress).enqueue(new Callback<com.example.devroad.Models.UserProgress>() {
-                            @Override
-                            public void onResponse(Call<com.example.devroad.Models.UserProgress> call, Response<com.example.devroad.Models.UserProgress> response) {
-                                if (response.isSuccessful()) {
-                                    android.util.Log.d("ExerciseActivity", "Lesson progress saved to database");
-                                    // Now update the user's total score
-                                    updateUserScoreInDatabase(userId, newTotalScore);
-                                } else {
-                                    android.util.Log.e("ExerciseActivity", "Failed to save lesson progress");
-                                    updateUserScoreInDatabase(userId, newTotalScore);
-                                }
-                            }
-
-                            @Override
-                            public void onFailure(Call<com.example.devroad.Models.UserProgress> call, Throwable t) {
-                                android.util.Log.e("ExerciseActivity", "Error saving lesson progress: " + t.getMessage());
-                                updateUserScoreInDatabase(userId, newTotalScore);
-                            }
-                        });
-                    } else {
-                        // If we can't fetch existing progress, just create new
-                        com.example.devroad.Models.UserProgress progress = new com.example.devroad.Models.UserProgress();
-                        progress.setUserId(userId);
-                        progress.setLessonId(lessonId);
-                        progress.setCompleted(true);
-                        progress.setScore(totalScore);
-                        
-                        supabaseClient.getDataApi().createProgress(progress).enqueue(new Callback<com.example.devroad.Models.UserProgress>() {
-                            @Override
-                            public void onResponse(Call<com.example.devroad.Models.UserProgress> call, Response<com.example.devroad.Models.UserProgress> response) {
-                                updateUserScoreInDatabase(userId, newTotalScore);
-                            }
-
-                            @Override
-                            public void onFailure(Call<com.example.devroad.Models.UserProgress> call, Throwable t) {
-                                updateUserScoreInDatabase(userId, newTotalScore);
-                            }
-                        });
-                    }
-                }
-
-                @Override
-                public void onFailure(Call<List<com.example.devroad.Models.UserProgress>> call, Throwable t) {
-                    android.util.Log.e("ExerciseActivity", "Error fetching progress: " + t.getMessage());
-                    // Still try to update score even if we can't fetch progress
-                    updateUserScoreInDatabase(userId, newTotalScore);
-                }
-            });
-        } catch (Exception e) {
-            android.util.Log.e("ExerciseActivity", "Exception saving progress: " + e.getMessage());
-            finishWithDelay();
-        }
-    }
-    
-    /**
-     * Update user's score in the database
-     */
-    private void updateUserScoreInDatabase(String userId, int newTotalScore) {
-        try {
-            SupabaseClient supabaseClient = SupabaseClient.getInstance();
-            SupabaseClient.UpdateScoreRequest scoreRequest = new SupabaseClient.UpdateScoreRequest(newTotalScore);
-            // Use correct Supabase filter format for PATCH
-            supabaseClient.getDataApi().updateUserScore("eq." + userId, scoreRequest).enqueue(new Callback<Void>() {
-                @Override
-                public void onResponse(Call<Void> call, Response<Void> response) {
-                    if (response.isSuccessful()) {
-                        android.util.Log.d("ExerciseActivity", "User score updated in database: " + newTotalScore);
-                    } else {
-                        android.util.Log.e("ExerciseActivity", "Failed to update user score");
-                    }
-                    finishWithDelay();
-                }
-
-                @Override
-                public void onFailure(Call<Void> call, Throwable t) {
-                    android.util.Log.e("ExerciseActivity", "Error updating user score: " + t.getMessage());
-                    finishWithDelay();
-                }
-            });
-        } catch (Exception e) {
-            android.util.Log.e("ExerciseActivity", "Exception updating score: " + e.getMessage());
-            finishWithDelay();
-        }
+        // Progress and the points earned are persisted locally and synced in the background
+        ProgressOutbox.getInstance(this).enqueueLessonCompletion(
+                sessionManager.getUserId(), lessonId, totalScore);
+        finishWithDelay();
     }
     
     /**
-     * Finish activity with a small delay to allow database operations to complete
+     * Finish activity with a small delay so the result can be seen
      */
     private void finishWithDelay() {
-        // Give time for async database operations to complete
         new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
             finish();
         }, 1500);
     }
     
-    // Data classes for JSON parsing
-    static class DragDropData {
-        List<String> items;
-        List<String> targets;
-    }
-    
-    static class MultipleChoiceData {
-        List<String> options;
-    }
-    
-    static class FillBlanksData {
-        List<BlankItem> blanks;
-    }
-    
-    static class BlankItem {
-        String text;
-        List<String> options;
-    }
-    
-    static class ArrangeCodeData {
-        List<String> lines;
-    }
-    
     @Override
     protected void onResume() {
         super.onResume();
@@ -12,16 +12,12 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 
 import com.example.devroad.Models.Flashcard;
-import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.services.ContentRepository;
 import com.example.devroad.services.SoundManager;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class FlashcardActivity extends AppCompatActivity {
     
     private TextView lessonTitleText;
@@ -92,30 +88,37 @@ public class FlashcardActivity extends AppCompatActivity {
     private void loadFlashcards() {
         progressBar.setVisibility(View.VISIBLE);
         
-        SupabaseClient.getInstance().getDataApi()
-                .getFlashcardsByLesson("eq." + lessonId, "*", "order_index.asc")
-                .enqueue(new Callback<List<Flashcard>>() {
+        ContentRepository.getInstance(this).getFlashcards(lessonId,
+                new ContentRepository.ContentCallback<List<Flashcard>>() {
                     @Override
-                    public void onResponse(Call<List<Flashcard>> call, Response<List<Flashcard>> response) {
+                    public void onData(List<Flashcard> cards, boolean fromCache) {
                         progressBar.setVisibility(View.GONE);
                         
-                        if (response.isSuccessful() && response.body() != null) {
-                            flashcards = response.body();
-                            if (!flashcards.isEmpty()) {
-                                displayCard(0);
-                            } else {
-                                Toast.makeText(FlashcardActivity.this, 
-                                        "No flashcards available", 
-                                        Toast.LENGTH_SHORT).show();
-                            }
+                        boolean firstLoad = flashcards.isEmpty();
+                        flashcards = cards;
+                        if (flashcards.isEmpty()) {
+                            Toast.makeText(FlashcardActivity.this, 
+                                    "No flashcards available", 
+                                    Toast.LENGTH_SHORT).show();
+                        } else {
+                            // Keep the user's place when a refresh arrives
+                            displayCard(firstLoad ? 0 : Math.min(currentIndex, flashcards.size() - 1));
                         }
                     }
                     
                     @Override
-                    public void onFailure(Call<List<Flashcard>> call, Throwable t) {
+                    public void onError(String message) {
                         progressBar.setVisibility(View.GONE);
                         Toast.makeText(FlashcardActivity.this, 
-                                "Error: " + t.getMessage(), 
+                                "Error: " + message, 
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    
+                    @Override
+                    public void onStale(String message) {
+                        // Saved content stays on screen, flag that it may be out of date
+                        Toast.makeText(FlashcardActivity.this, 
+                                "Showing saved content: " + message, 
                                 Toast.LENGTH_SHORT).show();
                     }
                 });
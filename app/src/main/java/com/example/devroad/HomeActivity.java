@@ -12,19 +12,21 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.devroad.Adapters.CoursAdapter;
+import com.example.devroad.Adapters.PagingScrollListener;
 import com.example.devroad.Models.Cours;
 import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.services.ContentPager;
+import com.example.devroad.services.ContentRepository;
 import com.example.devroad.services.SoundManager;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class HomeActivity extends AppCompatActivity {
     
+    // Rows left below the last visible one when the next page is requested
+    private static final int PAGE_PREFETCH_DISTANCE = 5;
+    
     private TextView usernameText;
     private TextView scoreText;
     private RecyclerView coursesRecyclerView;
@@ -34,6 +36,8 @@ public class HomeActivity extends AppCompatActivity {
     private SupabaseClient supabaseClient;
     private CoursAdapter coursAdapter;
     private SoundManager soundManager;
+    private ContentRepository contentRepository;
+    private ContentPager<Cours> coursesPager;
     
     // Menu items
     private MenuItem musicMenuItem;
@@ -51,8 +55,10 @@ public class HomeActivity extends AppCompatActivity {
         
         sessionManager = new SessionManager(this);
         supabaseClient = SupabaseClient.getInstance();
-        supabaseClient.setAccessToken(sessionManager.getAccessToken());
+        supabaseClient.setSession(sessionManager.getAccessToken(), sessionManager.getRefreshToken());
         soundManager = SoundManager.getInstance(this);
+        contentRepository = ContentRepository.getInstance(this);
+        coursesPager = createCoursesPager();
         
         initViews();
         loadUserData();
@@ -92,6 +98,7 @@ public class HomeActivity extends AppCompatActivity {
         coursesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         coursAdapter = new CoursAdapter(new ArrayList<>(), this::onCourseClick);
         coursesRecyclerView.setAdapter(coursAdapter);
+        coursesRecyclerView.addOnScrollListener(new PagingScrollListener(coursesPager, PAGE_PREFETCH_DISTANCE));
     }
     
     /**
@@ -190,30 +197,37 @@ public class HomeActivity extends AppCompatActivity {
     
     private void loadCourses() {
         progressBar.setVisibility(View.VISIBLE);
-        
-        supabaseClient.getDataApi().getAllCourses("*", "order_index.asc")
-                .enqueue(new Callback<List<Cours>>() {
+        coursesPager.reload();
+    }
+    
+    private ContentPager<Cours> createCoursesPager() {
+        return new ContentPager<>(contentRepository::getCoursesPage, ContentRepository.PAGE_SIZE,
+                new ContentPager.Listener<Cours>() {
                     @Override
-                    public void onResponse(Call<List<Cours>> call, Response<List<Cours>> response) {
+                    public void onItemsChanged(List<Cours> courses) {
                         progressBar.setVisibility(View.GONE);
+                        boolean firstPage = coursAdapter.getItemCount() == 0;
+                        coursAdapter.updateCourses(courses);
                         
-                        if (response.isSuccessful() && response.body() != null) {
-                            coursAdapter.updateCourses(response.body());
-                            
-                            // Animate RecyclerView items
+                        // Animate RecyclerView items
+                        if (firstPage) {
                             coursesRecyclerView.scheduleLayoutAnimation();
-                        } else {
-                            Toast.makeText(HomeActivity.this, 
-                                    "Failed to load courses", 
-                                    Toast.LENGTH_SHORT).show();
                         }
                     }
                     
                     @Override
-                    public void onFailure(Call<List<Cours>> call, Throwable t) {
+                    public void onError(String message) {
                         progressBar.setVisibility(View.GONE);
                         Toast.makeText(HomeActivity.this, 
-                                "Error: " + t.getMessage(), 
+                                "Error: " + message, 
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    
+                    @Override
+                    public void onStale(String message) {
+                        // Saved content stays on screen, flag that it may be out of date
+                        Toast.makeText(HomeActivity.this, 
+                                "Showing saved content: " + message, 
                                 Toast.LENGTH_SHORT).show();
                     }
                 });
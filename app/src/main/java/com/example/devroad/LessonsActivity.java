@@ -10,19 +10,23 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.devroad.Adapters.LessonAdapter;
+import com.example.devroad.Adapters.PagingScrollListener;
 import com.example.devroad.Models.Lesson;
-import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.services.ContentPager;
+import com.example.devroad.services.ContentRepository;
+import com.example.devroad.services.LessonPrefetcher;
 import com.example.devroad.services.SoundManager;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class LessonsActivity extends AppCompatActivity {
     
+    // Upcoming lessons whose content is warmed while this screen is idle
+    private static final int PREFETCH_LOOKAHEAD = 3;
+    // Rows left below the last visible one when the next page is requested
+    private static final int PAGE_PREFETCH_DISTANCE = 5;
+    
     private TextView courseTitleText;
     private RecyclerView lessonsRecyclerView;
     private View progressBar;
@@ -30,7 +34,9 @@ public class LessonsActivity extends AppCompatActivity {
     private String courseId;
     private String courseTitle;
     private SessionManager sessionManager;
-    private SupabaseClient supabaseClient;
+    private ContentRepository contentRepository;
+    private LessonPrefetcher lessonPrefetcher;
+    private ContentPager<Lesson> lessonsPager;
     private LessonAdapter lessonAdapter;
     private SoundManager soundManager;
     
@@ -43,7 +49,9 @@ public class LessonsActivity extends AppCompatActivity {
         courseTitle = getIntent().getStringExtra("course_title");
         
         sessionManager = new SessionManager(this);
-        supabaseClient = SupabaseClient.getInstance();
+        contentRepository = ContentRepository.getInstance(this);
+        lessonPrefetcher = new LessonPrefetcher(contentRepository, PREFETCH_LOOKAHEAD);
+        lessonsPager = createLessonsPager();
         soundManager = SoundManager.getInstance(this);
         
         initViews();
@@ -62,32 +70,39 @@ public class LessonsActivity extends AppCompatActivity {
         lessonsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         lessonAdapter = new LessonAdapter(new ArrayList<>(), this::onLessonClick);
         lessonsRecyclerView.setAdapter(lessonAdapter);
+        lessonsRecyclerView.addOnScrollListener(new PagingScrollListener(lessonsPager, PAGE_PREFETCH_DISTANCE));
     }
     
     private void loadLessons() {
         progressBar.setVisibility(View.VISIBLE);
-        
-        supabaseClient.getDataApi()
-                .getLessonsByCourse("eq." + courseId, "*", "order_index.asc")
-                .enqueue(new Callback<List<Lesson>>() {
+        lessonsPager.reload();
+    }
+    
+    private ContentPager<Lesson> createLessonsPager() {
+        return new ContentPager<>(
+                (after, callback) -> contentRepository.getLessonsPage(courseId, after, callback),
+                ContentRepository.PAGE_SIZE,
+                new ContentPager.Listener<Lesson>() {
                     @Override
-                    public void onResponse(Call<List<Lesson>> call, Response<List<Lesson>> response) {
+                    public void onItemsChanged(List<Lesson> lessons) {
                         progressBar.setVisibility(View.GONE);
-                        
-                        if (response.isSuccessful() && response.body() != null) {
-                            lessonAdapter.updateLessons(response.body());
-                        } else {
-                            Toast.makeText(LessonsActivity.this, 
-                                    "Failed to load lessons", 
-                                    Toast.LENGTH_SHORT).show();
-                        }
+                        lessonAdapter.updateLessons(lessons);
+                        lessonPrefetcher.schedule(lessons, sessionManager.getScore());
                     }
                     
                     @Override
-                    public void onFailure(Call<List<Lesson>> call, Throwable t) {
+                    public void onError(String message) {
                         progressBar.setVisibility(View.GONE);
                         Toast.makeText(LessonsActivity.this, 
-                                "Error: " + t.getMessage(), 
+                                "Error: " + message, 
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    
+                    @Override
+                    public void onStale(String message) {
+                        // Saved content stays on screen, flag that it may be out of date
+                        Toast.makeText(LessonsActivity.this, 
+                                "Showing saved content: " + message, 
                                 Toast.LENGTH_SHORT).show();
                     }
                 });
@@ -118,4 +133,10 @@ public class LessonsActivity extends AppCompatActivity {
         super.onPause();
         soundManager.onPause();
     }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        lessonPrefetcher.cancel();
+    }
 }
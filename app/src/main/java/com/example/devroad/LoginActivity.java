@@ -3,6 +3,7 @@ package com.example.devroad;
 import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.util.Patterns;
 import android.view.View;
 import android.view.animation.DecelerateInterpolator;
@@ -14,17 +15,22 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.devroad.Models.User;
+import com.example.devroad.Supabase.PostgrestQuery;
 import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.Supabase.SupabaseTasks;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import retrofit2.HttpException;
 
 public class LoginActivity extends AppCompatActivity {
+    private static final String TAG = "LoginActivity";
+    private static final long SCORE_TIMEOUT_SECONDS = 10;
 
     private TextView formTitle;
     private EditText emailInput;
@@ -39,6 +45,8 @@ public class LoginActivity extends AppCompatActivity {
     private boolean isLoginMode = true;
     private SessionManager sessionManager;
     private SupabaseClient supabaseClient;
+    // Requests still running when the screen is destroyed are cancelled
+    private SupabaseTasks.Scope tasks;
 
     @SuppressLint("MissingInflatedId")
     @Override
@@ -49,6 +57,7 @@ public class LoginActivity extends AppCompatActivity {
         // Initialize SessionManager and SupabaseClient
         sessionManager = new SessionManager(this);
         supabaseClient = SupabaseClient.getInstance();
+        tasks = SupabaseTasks.scope(this);
 
         // Check if user is already logged in
         if (sessionManager.isLoggedIn()) {
@@ -210,56 +219,64 @@ public class LoginActivity extends AppCompatActivity {
 
         SupabaseClient.SignInRequest request = new SupabaseClient.SignInRequest(email, password);
 
-        supabaseClient.getAuthApi().signIn(request).enqueue(new Callback<SupabaseClient.AuthResponse>() {
-            @Override
-            public void onResponse(Call<SupabaseClient.AuthResponse> call, Response<SupabaseClient.AuthResponse> response) {
-                authButton.setEnabled(true);
-                authButton.setText("Login");
-
-                if (response.isSuccessful() && response.body() != null) {
-                    SupabaseClient.AuthResponse authResponse = response.body();
-
-                    if (authResponse.error != null) {
+        tasks.call(supabaseClient.getAuthApi().signIn(request))
+                .thenComposeAsync(authResponse -> {
+                    if (authResponse == null || authResponse.error != null) {
+                        throw new LoginRejectedException(authResponse != null ? authResponse.errorDescription : null);
+                    }
+                    startSession(authResponse);
+                    // Fetch user's score from database
+                    return fetchUserScoreFromDatabase(authResponse.user.id);
+                }, SupabaseTasks.mainThread())
+                .whenCompleteAsync((score, error) -> {
+                    if (tasks.isCancelled()) {
+                        return;
+                    }
+                    authButton.setEnabled(true);
+                    authButton.setText("Login");
+                    if (error == null) {
+                        // Update the session with the correct score from database
+                        sessionManager.updateScore(score);
                         Toast.makeText(LoginActivity.this,
-                                "Login failed: " + authResponse.errorDescription,
-                                Toast.LENGTH_LONG).show();
+                                score > 0 ? "Login successful! Score: " + score : "Login successful!",
+                                Toast.LENGTH_SHORT).show();
+                        navigateToMain();
                         return;
                     }
 
-                    String username = "";
-                    if (authResponse.user.userMetadata != null &&
-                            authResponse.user.userMetadata.containsKey("username")) {
-                        username = (String) authResponse.user.userMetadata.get("username");
+                    Throwable cause = SupabaseTasks.unwrap(error);
+                    if (cause instanceof LoginRejectedException && cause.getMessage() != null) {
+                        Toast.makeText(LoginActivity.this,
+                                "Login failed: " + cause.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                    } else if (cause instanceof LoginRejectedException || cause instanceof HttpException) {
+                        Toast.makeText(LoginActivity.this,
+                                "Login failed. Please check your credentials.",
+                                Toast.LENGTH_LONG).show();
+                    } else {
+                        Toast.makeText(LoginActivity.this,
+                                "Login failed: " + cause.getMessage(),
+                                Toast.LENGTH_LONG).show();
                     }
+                }, SupabaseTasks.mainThread());
+    }
 
-                    sessionManager.saveSession(
-                            authResponse.accessToken,
-                            authResponse.refreshToken,
-                            authResponse.user.id,
-                            authResponse.user.email,
-                            username
-                    );
+    private void startSession(SupabaseClient.AuthResponse authResponse) {
+        String username = "";
+        if (authResponse.user.userMetadata != null &&
+                authResponse.user.userMetadata.containsKey("username")) {
+            username = (String) authResponse.user.userMetadata.get("username");
+        }
 
-                    supabaseClient.setAccessToken(authResponse.accessToken);
-                    
-                    // Fetch user's score from database
-                    fetchUserScoreFromDatabase(authResponse.user.id);
-                } else {
-                    Toast.makeText(LoginActivity.this,
-                            "Login failed. Please check your credentials.",
-                            Toast.LENGTH_LONG).show();
-                }
-            }
+        sessionManager.saveSession(
+                authResponse.accessToken,
+                authResponse.refreshToken,
+                authResponse.user.id,
+                authResponse.user.email,
+                username
+        );
 
-            @Override
-            public void onFailure(Call<SupabaseClient.AuthResponse> call, Throwable t) {
-                authButton.setEnabled(true);
-                authButton.setText("Login");
-                Toast.makeText(LoginActivity.this,
-                        "Login failed: " + t.getMessage(),
-                        Toast.LENGTH_LONG).show();
-            }
-        });
+        supabaseClient.setSession(authResponse.accessToken, authResponse.refreshToken);
     }
 
     private void performRegistration(String email, String password, String username) {
@@ -272,43 +289,37 @@ public class LoginActivity extends AppCompatActivity {
 
         SupabaseClient.SignUpRequest request = new SupabaseClient.SignUpRequest(email, password, userData);
 
-        supabaseClient.getAuthApi().signUp(request).enqueue(new Callback<SupabaseClient.AuthResponse>() {
-            @Override
-            public void onResponse(Call<SupabaseClient.AuthResponse> call, Response<SupabaseClient.AuthResponse> response) {
-                authButton.setEnabled(true);
-                authButton.setText("Register");
-
-                if (response.isSuccessful() && response.body() != null) {
-                    SupabaseClient.AuthResponse authResponse = response.body();
-
-                    if (authResponse.error != null) {
-                        Toast.makeText(LoginActivity.this,
-                                "Registration failed: " + authResponse.errorDescription,
-                                Toast.LENGTH_LONG).show();
+        tasks.call(supabaseClient.getAuthApi().signUp(request))
+                .whenCompleteAsync((authResponse, error) -> {
+                    if (tasks.isCancelled()) {
                         return;
                     }
+                    authButton.setEnabled(true);
+                    authButton.setText("Register");
 
-                    Toast.makeText(LoginActivity.this,
-                            "Registration successful! You can now login.",
-                            Toast.LENGTH_LONG).show();
+                    if (error == null && authResponse != null) {
+                        if (authResponse.error != null) {
+                            Toast.makeText(LoginActivity.this,
+                                    "Registration failed: " + authResponse.errorDescription,
+                                    Toast.LENGTH_LONG).show();
+                            return;
+                        }
 
-                    toggleMode();
-                } else {
-                    Toast.makeText(LoginActivity.this,
-                            "Registration failed. Please try again.",
-                            Toast.LENGTH_LONG).show();
-                }
-            }
+                        Toast.makeText(LoginActivity.this,
+                                "Registration successful! You can now login.",
+                                Toast.LENGTH_LONG).show();
 
-            @Override
-            public void onFailure(Call<SupabaseClient.AuthResponse> call, Throwable t) {
-                authButton.setEnabled(true);
-                authButton.setText("Register");
-                Toast.makeText(LoginActivity.this,
-                        "Registration failed: " + t.getMessage(),
-                        Toast.LENGTH_LONG).show();
-            }
-        });
+                        toggleMode();
+                    } else if (error == null || SupabaseTasks.unwrap(error) instanceof HttpException) {
+                        Toast.makeText(LoginActivity.this,
+                                "Registration failed. Please try again.",
+                                Toast.LENGTH_LONG).show();
+                    } else {
+                        Toast.makeText(LoginActivity.this,
+                                "Registration failed: " + SupabaseTasks.unwrap(error).getMessage(),
+                                Toast.LENGTH_LONG).show();
+                    }
+                }, SupabaseTasks.mainThread());
     }
 
     private void navigateToMain() {
@@ -318,61 +329,42 @@ public class LoginActivity extends AppCompatActivity {
     }
     
     /**
-     * Fetch user's score from the database and update SessionManager
+     * Fetch user's score from the database. Never fails: if it cannot be read in time the
+     * session starts with 0 and the score is corrected on the next sync.
      */
-    private void fetchUserScoreFromDatabase(String userId) {
-        android.util.Log.d("LoginActivity", "Fetching score for user: " + userId);
+    private CompletableFuture<Integer> fetchUserScoreFromDatabase(String userId) {
+        Log.d(TAG, "Fetching score for user: " + userId);
         
         // Query users table with filter: id=eq.{userId}
-        supabaseClient.getDataApi().getUserById("eq." + userId, "id,score").enqueue(new Callback<List<User>>() {
-            @Override
-            public void onResponse(Call<List<com.example.devroad.Models.User>> call, Response<List<com.example.devroad.Models.User>> response) {
-                android.util.Log.d("LoginActivity", "Response code: " + response.code());
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    List<com.example.devroad.Models.User> users = response.body();
-                    android.util.Log.d("LoginActivity", "Users found: " + users.size());
-                    
-                    if (!users.isEmpty()) {
-                        com.example.devroad.Models.User user = users.get(0);
-                        int fetchedScore = user.getScore();
-                        android.util.Log.d("LoginActivity", "Fetched score from DB: " + fetchedScore);
-                        
-                        // Update the session with the correct score from database
-                        sessionManager.updateScore(fetchedScore);
-                        
-                        Toast.makeText(LoginActivity.this, "Login successful! Score: " + fetchedScore, Toast.LENGTH_SHORT).show();
-                        navigateToMain();
-                    } else {
-                        // No user found, set score to 0
-                        android.util.Log.w("LoginActivity", "No user data found in response, setting score to 0");
-                        sessionManager.updateScore(0);
-                        Toast.makeText(LoginActivity.this, "Login successful!", Toast.LENGTH_SHORT).show();
-                        navigateToMain();
+        CompletableFuture<List<User>> users = tasks.call(supabaseClient.getDataApi()
+                .getUsers(PostgrestQuery.select("id", "score").eq("id", userId).toQueryMap()));
+        return SupabaseTasks.withTimeout(users, SCORE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .handle((found, error) -> {
+                    if (error != null) {
+                        if (tasks.isCancelled()) {
+                            throw new CancellationException();
+                        }
+                        // If fetch fails, proceed with 0 score
+                        Log.e(TAG, "Error fetching score: " + SupabaseTasks.unwrap(error).getMessage());
+                        return 0;
                     }
-                } else {
-                    // If we can't fetch score, just proceed with 0 score
-                    try {
-                        android.util.Log.e("LoginActivity", "Failed response: " + response.code() + 
-                            " - " + response.errorBody().string());
-                    } catch (Exception e) {
-                        android.util.Log.e("LoginActivity", "Response error");
+                    if (found == null || found.isEmpty()) {
+                        // No user found, set score to 0
+                        Log.w(TAG, "No user data found in response, setting score to 0");
+                        return 0;
                     }
-                    sessionManager.updateScore(0);
-                    Toast.makeText(LoginActivity.this, "Login successful!", Toast.LENGTH_SHORT).show();
-                    navigateToMain();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<List<com.example.devroad.Models.User>> call, Throwable t) {
-                // If fetch fails, proceed with 0 score
-                android.util.Log.e("LoginActivity", "Error fetching score: " + t.getMessage());
-                t.printStackTrace();
-                sessionManager.updateScore(0);
-                Toast.makeText(LoginActivity.this, "Login successful!", Toast.LENGTH_SHORT).show();
-                navigateToMain();
-            }
-        });
+                    int fetchedScore = found.get(0).getScore();
+                    Log.d(TAG, "Fetched score from DB: " + fetchedScore);
+                    return fetchedScore;
+                });
+    }
+    
+    /**
+     * Sign-in answered, but with an error instead of a session
+     */
+    private static class LoginRejectedException extends RuntimeException {
+        LoginRejectedException(String description) {
+            super(description);
+        }
     }
 }
@@ -0,0 +1,45 @@
+package com.example.devroad.Models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Tombstone for a deleted catalog row, written server-side by a trigger on
+ * cours, lessons, flashcards and exercises.
+ */
+public class ContentDeletion {
+    @SerializedName("table_name")
+    private String tableName;
+
+    @SerializedName("row_id")
+    private String rowId;
+
+    @SerializedName("deleted_at")
+    private String deletedAt;
+
+    public ContentDeletion() {
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(String rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(String deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
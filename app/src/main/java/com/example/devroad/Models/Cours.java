@@ -27,6 +27,9 @@ public class Cours {
     @SerializedName("order_index")
     private int orderIndex;
 
+    @SerializedName("updated_at")
+    private String updatedAt;
+
     public Cours() {
     }
 
@@ -93,4 +96,12 @@ public class Cours {
     public void setOrderIndex(int orderIndex) {
         this.orderIndex = orderIndex;
     }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
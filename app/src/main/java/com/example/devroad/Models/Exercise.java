@@ -1,6 +1,5 @@
 package com.example.devroad.Models;
 
-import com.google.gson.JsonObject;
 import com.google.gson.annotations.SerializedName;
 
 public class Exercise {
@@ -17,7 +16,7 @@ public class Exercise {
     private String question;
 
     @SerializedName("data")
-    private JsonObject data; // JSON object containing exercise-specific data
+    private ExercisePayload payload; // Decoded from the type-specific data object
 
     @SerializedName("answer")
     private String answer; // Correct answer
@@ -28,6 +27,9 @@ public class Exercise {
     @SerializedName("order_index")
     private int orderIndex;
 
+    @SerializedName("updated_at")
+    private String updatedAt;
+
     public Exercise() {
     }
 
@@ -63,16 +65,12 @@ public class Exercise {
         this.question = question;
     }
 
-    public JsonObject getData() {
-        return data;
+    public ExercisePayload getPayload() {
+        return payload;
     }
 
-    public void setData(JsonObject data) {
-        this.data = data;
-    }
-    
-    public String getDataAsString() {
-        return data != null ? data.toString() : "{}";
+    public void setPayload(ExercisePayload payload) {
+        this.payload = payload;
     }
 
     public String getAnswer() {
@@ -98,4 +96,12 @@ public class Exercise {
     public void setOrderIndex(int orderIndex) {
         this.orderIndex = orderIndex;
     }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,143 @@
+package com.example.devroad.Models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ExercisePayload - Typed, immutable form of an exercise's data column, one subclass per
+ * exercise type. Decoded once when the lesson is parsed; rendering and grading read it directly.
+ */
+public abstract class ExercisePayload {
+    public static final String TYPE_DRAG_DROP = "drag_drop";
+    public static final String TYPE_MULTIPLE_CHOICE = "multiple_choice";
+    public static final String TYPE_FILL_BLANKS = "fill_blanks";
+    public static final String TYPE_ARRANGE_CODE = "arrange_code";
+
+    private ExercisePayload() {
+    }
+
+    public abstract String getType();
+
+    private static <T> List<T> frozen(List<T> list) {
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    // {"items": ["item1", "item2"], "targets": ["target1", "target2"]}
+    public static final class DragDrop extends ExercisePayload {
+        private final List<String> items;
+        private final List<String> targets;
+
+        public DragDrop(List<String> items, List<String> targets) {
+            this.items = frozen(items);
+            this.targets = frozen(targets);
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_DRAG_DROP;
+        }
+
+        public List<String> getItems() {
+            return items;
+        }
+
+        public List<String> getTargets() {
+            return targets;
+        }
+    }
+
+    // {"options": ["option1", "option2", "option3", "option4"]}
+    public static final class MultipleChoice extends ExercisePayload {
+        private final List<String> options;
+
+        public MultipleChoice(List<String> options) {
+            this.options = frozen(options);
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_MULTIPLE_CHOICE;
+        }
+
+        public List<String> getOptions() {
+            return options;
+        }
+    }
+
+    // {"blanks": [{"text": "The ___ is", "options": ["sun", "moon"]}]}
+    public static final class FillBlanks extends ExercisePayload {
+        private final List<Blank> blanks;
+
+        public FillBlanks(List<Blank> blanks) {
+            this.blanks = frozen(blanks);
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_FILL_BLANKS;
+        }
+
+        public List<Blank> getBlanks() {
+            return blanks;
+        }
+    }
+
+    public static final class Blank {
+        private final String text;
+        private final List<String> options;
+
+        public Blank(String text, List<String> options) {
+            this.text = text;
+            this.options = frozen(options);
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public List<String> getOptions() {
+            return options;
+        }
+    }
+
+    // {"lines": ["line1", "line2", "line3"]} in the correct order
+    public static final class ArrangeCode extends ExercisePayload {
+        private final List<String> lines;
+
+        public ArrangeCode(List<String> lines) {
+            this.lines = frozen(lines);
+        }
+
+        @Override
+        public String getType() {
+            return TYPE_ARRANGE_CODE;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+    }
+
+    /**
+     * A type this version of the app does not know; the JSON is kept only so it
+     * survives a round trip through the local cache.
+     */
+    public static final class Unsupported extends ExercisePayload {
+        private final String type;
+        private final String json;
+
+        public Unsupported(String type, String json) {
+            this.type = type;
+            this.json = json;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        public String getJson() {
+            return json;
+        }
+    }
+}
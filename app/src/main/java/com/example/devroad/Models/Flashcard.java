@@ -18,6 +18,9 @@ public class Flashcard {
     @SerializedName("order_index")
     private int orderIndex;
 
+    @SerializedName("updated_at")
+    private String updatedAt;
+
     public Flashcard() {
     }
 
@@ -60,4 +63,12 @@ public class Flashcard {
     public void setOrderIndex(int orderIndex) {
         this.orderIndex = orderIndex;
     }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -21,6 +21,9 @@ public class Lesson {
     @SerializedName("required_score")
     private int requiredScore;
 
+    @SerializedName("updated_at")
+    private String updatedAt;
+
     public Lesson() {
     }
 
@@ -71,4 +74,12 @@ public class Lesson {
     public void setRequiredScore(int requiredScore) {
         this.requiredScore = requiredScore;
     }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.devroad.Models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lesson with its flashcards and exercises embedded, as returned by
+ * select=id,flashcards(...),exercises(...) on the lessons endpoint.
+ */
+public class LessonBundle extends Lesson {
+    @SerializedName("flashcards")
+    private List<Flashcard> flashcards;
+
+    @SerializedName("exercises")
+    private List<Exercise> exercises;
+
+    public LessonBundle() {
+    }
+
+    public List<Flashcard> getFlashcards() {
+        return flashcards != null ? flashcards : new ArrayList<>();
+    }
+
+    public void setFlashcards(List<Flashcard> flashcards) {
+        this.flashcards = flashcards;
+    }
+
+    public List<Exercise> getExercises() {
+        return exercises != null ? exercises : new ArrayList<>();
+    }
+
+    public void setExercises(List<Exercise> exercises) {
+        this.exercises = exercises;
+    }
+}
@@ -44,6 +44,19 @@ public class SessionManager {
         return prefs.getString(KEY_ACCESS_TOKEN, null);
     }
 
+    public String getRefreshToken() {
+        return prefs.getString(KEY_REFRESH_TOKEN, null);
+    }
+
+    /**
+     * Store tokens after a refresh without touching the rest of the session
+     */
+    public void updateTokens(String accessToken, String refreshToken) {
+        editor.putString(KEY_ACCESS_TOKEN, accessToken);
+        editor.putString(KEY_REFRESH_TOKEN, refreshToken);
+        editor.apply();
+    }
+
     public String getUserId() {
         return prefs.getString(KEY_USER_ID, null);
     }
@@ -0,0 +1,212 @@
+package com.example.devroad.Supabase;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.example.devroad.Supabase.ModelTypeAdapters.readInt;
+import static com.example.devroad.Supabase.ModelTypeAdapters.readString;
+
+/**
+ * ApiTypeAdapters - Hand-written Gson adapters for the SupabaseClient request/response classes.
+ * Kept apart from ModelTypeAdapters so the model adapters have no Android dependency and can be
+ * compiled on their own (see the benchmark module).
+ */
+final class ApiTypeAdapters implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (raw == SupabaseClient.SignUpRequest.class) {
+            adapter = new SignUpRequestAdapter(gson.getAdapter(new TypeToken<Map<String, String>>() {}));
+        } else if (raw == SupabaseClient.SignInRequest.class) {
+            adapter = new SignInRequestAdapter();
+        } else if (raw == SupabaseClient.RefreshTokenRequest.class) {
+            adapter = new RefreshTokenRequestAdapter();
+        } else if (raw == SupabaseClient.AuthResponse.class) {
+            adapter = new AuthResponseAdapter(gson.getAdapter(SupabaseClient.AuthUser.class));
+        } else if (raw == SupabaseClient.AuthUser.class) {
+            adapter = new AuthUserAdapter(gson.getAdapter(new TypeToken<Map<String, Object>>() {}));
+        } else if (raw == SupabaseClient.ScoreIncrementRequest.class) {
+            adapter = new ScoreIncrementRequestAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    private static final class SignUpRequestAdapter extends ModelTypeAdapters.ObjectAdapter<SupabaseClient.SignUpRequest> {
+        private final TypeAdapter<Map<String, String>> dataAdapter;
+
+        SignUpRequestAdapter(TypeAdapter<Map<String, String>> dataAdapter) {
+            this.dataAdapter = dataAdapter;
+        }
+
+        @Override
+        SupabaseClient.SignUpRequest newInstance() {
+            return new SupabaseClient.SignUpRequest(null, null, null);
+        }
+
+        @Override
+        boolean readField(SupabaseClient.SignUpRequest request, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "email": request.email = readString(in); return true;
+                case "password": request.password = readString(in); return true;
+                case "data": request.data = dataAdapter.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, SupabaseClient.SignUpRequest request) throws IOException {
+            out.name("email").value(request.email);
+            out.name("password").value(request.password);
+            out.name("data");
+            dataAdapter.write(out, request.data);
+        }
+    }
+
+    private static final class SignInRequestAdapter extends ModelTypeAdapters.ObjectAdapter<SupabaseClient.SignInRequest> {
+        @Override
+        SupabaseClient.SignInRequest newInstance() {
+            return new SupabaseClient.SignInRequest(null, null);
+        }
+
+        @Override
+        boolean readField(SupabaseClient.SignInRequest request, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "email": request.email = readString(in); return true;
+                case "password": request.password = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, SupabaseClient.SignInRequest request) throws IOException {
+            out.name("email").value(request.email);
+            out.name("password").value(request.password);
+        }
+    }
+
+    private static final class RefreshTokenRequestAdapter extends ModelTypeAdapters.ObjectAdapter<SupabaseClient.RefreshTokenRequest> {
+        @Override
+        SupabaseClient.RefreshTokenRequest newInstance() {
+            return new SupabaseClient.RefreshTokenRequest(null);
+        }
+
+        @Override
+        boolean readField(SupabaseClient.RefreshTokenRequest request, String name, JsonReader in)
+                throws IOException {
+            if ("refresh_token".equals(name)) {
+                request.refreshToken = readString(in);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, SupabaseClient.RefreshTokenRequest request) throws IOException {
+            out.name("refresh_token").value(request.refreshToken);
+        }
+    }
+
+    private static final class AuthResponseAdapter extends ModelTypeAdapters.ObjectAdapter<SupabaseClient.AuthResponse> {
+        private final TypeAdapter<SupabaseClient.AuthUser> userAdapter;
+
+        AuthResponseAdapter(TypeAdapter<SupabaseClient.AuthUser> userAdapter) {
+            this.userAdapter = userAdapter;
+        }
+
+        @Override
+        SupabaseClient.AuthResponse newInstance() {
+            return new SupabaseClient.AuthResponse();
+        }
+
+        @Override
+        boolean readField(SupabaseClient.AuthResponse response, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "access_token": response.accessToken = readString(in); return true;
+                case "refresh_token": response.refreshToken = readString(in); return true;
+                case "user": response.user = userAdapter.read(in); return true;
+                case "error": response.error = readString(in); return true;
+                case "error_description": response.errorDescription = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, SupabaseClient.AuthResponse response) throws IOException {
+            out.name("access_token").value(response.accessToken);
+            out.name("refresh_token").value(response.refreshToken);
+            out.name("user");
+            userAdapter.write(out, response.user);
+            out.name("error").value(response.error);
+            out.name("error_description").value(response.errorDescription);
+        }
+    }
+
+    private static final class AuthUserAdapter extends ModelTypeAdapters.ObjectAdapter<SupabaseClient.AuthUser> {
+        private final TypeAdapter<Map<String, Object>> metadataAdapter;
+
+        AuthUserAdapter(TypeAdapter<Map<String, Object>> metadataAdapter) {
+            this.metadataAdapter = metadataAdapter;
+        }
+
+        @Override
+        SupabaseClient.AuthUser newInstance() {
+            return new SupabaseClient.AuthUser();
+        }
+
+        @Override
+        boolean readField(SupabaseClient.AuthUser user, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id": user.id = readString(in); return true;
+                case "email": user.email = readString(in); return true;
+                case "user_metadata": user.userMetadata = metadataAdapter.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, SupabaseClient.AuthUser user) throws IOException {
+            out.name("id").value(user.id);
+            out.name("email").value(user.email);
+            out.name("user_metadata");
+            metadataAdapter.write(out, user.userMetadata);
+        }
+    }
+
+    private static final class ScoreIncrementRequestAdapter
+            extends ModelTypeAdapters.ObjectAdapter<SupabaseClient.ScoreIncrementRequest> {
+        @Override
+        SupabaseClient.ScoreIncrementRequest newInstance() {
+            return new SupabaseClient.ScoreIncrementRequest(null, null, 0);
+        }
+
+        @Override
+        boolean readField(SupabaseClient.ScoreIncrementRequest request, String name, JsonReader in)
+                throws IOException {
+            switch (name) {
+                case "user_id": request.userId = readString(in); return true;
+                case "idempotency_key": request.idempotencyKey = readString(in); return true;
+                case "delta": request.delta = readInt(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, SupabaseClient.ScoreIncrementRequest request) throws IOException {
+            out.name("user_id").value(request.userId);
+            out.name("idempotency_key").value(request.idempotencyKey);
+            out.name("delta").value(request.delta);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.services.AppLog;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * CircuitBreaker - Per-endpoint circuit breaker for PostgREST, as an OkHttp interceptor.
+ * After FAILURE_THRESHOLD consecutive failures (I/O errors or 5xx) an endpoint is opened and
+ * its requests fail at once with CircuitOpenException instead of waiting out the timeouts.
+ * Once the open period has passed, a single request is let through as a half-open probe:
+ * success closes the circuit, failure reopens it for twice as long.
+ * Installed inside HttpCachePolicy's offline interceptor, so cacheable reads still fall back
+ * to their stored copy while the circuit is open.
+ */
+public class CircuitBreaker implements Interceptor {
+    private static final String TAG = "CircuitBreaker";
+    private static final String GUARDED_PREFIX = "/rest/v1/";
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long BASE_OPEN_MS = 15 * 1000;
+    private static final long MAX_OPEN_MS = 5 * 60 * 1000;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Thrown instead of making the request while an endpoint's circuit is open
+     */
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(String endpoint, long retryInMs) {
+            super("Server unavailable (" + endpoint + "), retrying in " + (retryInMs / 1000 + 1) + "s");
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = request.url().encodedPath();
+        // Cache-only requests never reach the server
+        if (!endpoint.startsWith(GUARDED_PREFIX) || request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+
+        Circuit circuit = circuits.computeIfAbsent(endpoint, Circuit::new);
+        long now = now();
+        if (!circuit.tryAcquire(now)) {
+            throw new CircuitOpenException(endpoint, circuit.retryInMs(now));
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                // A losing hedge or an abandoned screen, says nothing about the server
+                circuit.onAbandoned();
+            } else {
+                circuit.onFailure(now());
+            }
+            throw e;
+        }
+
+        if (response.code() >= 500) {
+            circuit.onFailure(now());
+        } else {
+            circuit.onSuccess();
+        }
+        return response;
+    }
+
+    public boolean isOpen(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        return circuit != null && circuit.isOpen(now());
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Circuit circuit : circuits.values()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(circuit);
+        }
+        return summary.toString();
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static final class Circuit {
+        private final String endpoint;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openMs = BASE_OPEN_MS;
+        private long openUntil;
+        private boolean probeInFlight;
+
+        Circuit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            switch (state) {
+                case OPEN:
+                    if (now < openUntil) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    AppLog.d(TAG, endpoint + " half-open, probing");
+                    return true;
+                case HALF_OPEN:
+                    // Everyone else keeps failing fast until the probe answers
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                AppLog.d(TAG, endpoint + " closed");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openMs = BASE_OPEN_MS;
+            probeInFlight = false;
+        }
+
+        synchronized void onFailure(long now) {
+            if (state == State.HALF_OPEN) {
+                openMs = Math.min(openMs * 2, MAX_OPEN_MS);
+                trip(now);
+            } else if (state == State.CLOSED && ++consecutiveFailures >= FAILURE_THRESHOLD) {
+                trip(now);
+            }
+        }
+
+        synchronized void onAbandoned() {
+            probeInFlight = false;
+        }
+
+        synchronized boolean isOpen(long now) {
+            return state == State.OPEN && now < openUntil;
+        }
+
+        synchronized long retryInMs(long now) {
+            return Math.max(openUntil - now, 0);
+        }
+
+        private void trip(long now) {
+            state = State.OPEN;
+            openUntil = now + openMs;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            AppLog.w(TAG, endpoint + " open for " + openMs + "ms");
+        }
+
+        @Override
+        public synchronized String toString() {
+            return endpoint + "=" + state;
+        }
+    }
+}
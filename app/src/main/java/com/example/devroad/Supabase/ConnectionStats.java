@@ -0,0 +1,257 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.services.AppLog;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+/**
+ * ConnectionStats - Times connection setup (DNS, TCP, TLS) separately from the request itself,
+ * through an OkHttp EventListener, and counts how many calls reused a pooled connection.
+ * Also counts response body bytes per call, to see what each screen's query downloads.
+ * Per route (method and path), every phase and the response size also go into histograms,
+ * reported as p50/p95/p99 by toJson() and dumpTo().
+ */
+public class ConnectionStats {
+    private static final String TAG = "SupabaseConnections";
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong newConnections = new AtomicLong();
+    private final AtomicLong dnsNanos = new AtomicLong();
+    private final AtomicLong connectNanos = new AtomicLong();
+    private final AtomicLong tlsNanos = new AtomicLong();
+    private final AtomicLong requestNanos = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    public EventListener.Factory eventListenerFactory() {
+        return call -> new CallTimer();
+    }
+
+    public String summary() {
+        long total = calls.get();
+        long opened = newConnections.get();
+        return "calls=" + total
+                + ", reused=" + reusedConnections.get()
+                + ", new connections=" + opened
+                + ", avg dns=" + averageMs(dnsNanos.get(), opened) + "ms"
+                + ", avg connect=" + averageMs(connectNanos.get(), opened) + "ms"
+                + ", avg tls=" + averageMs(tlsNanos.get(), opened) + "ms"
+                + ", avg request=" + averageMs(requestNanos.get(), total) + "ms"
+                + ", response bytes=" + responseBytes.get();
+    }
+
+    /**
+     * Per-route histograms: {"GET /rest/v1/cours": {"ttfb_ms": {"count":.., "p50":.., ...}, ...}}
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, RouteStats> route : new TreeMap<>(routes).entrySet()) {
+            json.add(route.getKey(), route.getValue().toJson());
+        }
+        return json;
+    }
+
+    /**
+     * Write toJson() to a file, replacing it. Blocking, call off the main thread.
+     */
+    public void dumpTo(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(toJson(), writer);
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    private static long averageMs(long nanos, long count) {
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos / count);
+    }
+
+    /**
+     * One per call; OkHttp invokes it from the thread running that call
+     */
+    private final class CallTimer extends EventListener {
+        private long dnsStart;
+        private long dnsTook;
+        private long connectStart;
+        private long connectTook;
+        private long tlsStart;
+        private long tlsTook;
+        private long requestStart;
+        private long requestHeadersStart;
+        private long ttfbTook;
+        private long bodyStart;
+        private long bodyTook;
+        private long bodyBytes;
+        private boolean connected;
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+            dnsTook = System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connectStart = System.nanoTime();
+            connected = true;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            tlsTook = System.nanoTime() - tlsStart;
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+            // TCP alone: the TLS handshake happens inside connectStart..connectEnd
+            connectTook = System.nanoTime() - connectStart - tlsTook;
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            requestHeadersStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            // Time to first byte: request sent until the status line starts arriving
+            ttfbTook = System.nanoTime() - requestHeadersStart;
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            // Bytes as read from the wire, i.e. after gzip
+            bodyBytes += byteCount;
+            bodyTook += System.nanoTime() - bodyStart;
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            finish(call, "");
+        }
+
+        @Override
+        public void callFailed(Call call, IOException e) {
+            finish(call, " FAILED");
+        }
+
+        private void finish(Call call, String outcome) {
+            long requestTook = requestStart == 0 ? 0 : System.nanoTime() - requestStart;
+            calls.incrementAndGet();
+            requestNanos.addAndGet(requestTook);
+            responseBytes.addAndGet(bodyBytes);
+            if (connected) {
+                newConnections.incrementAndGet();
+                dnsNanos.addAndGet(dnsTook);
+                connectNanos.addAndGet(connectTook);
+                tlsNanos.addAndGet(tlsTook);
+            } else if (requestStart != 0) {
+                reusedConnections.incrementAndGet();
+            }
+            // Only calls that got a response; failures are already in the log line below
+            if (ttfbTook != 0) {
+                String route = call.request().method() + " " + call.request().url().encodedPath();
+                routes.computeIfAbsent(route, key -> new RouteStats())
+                        .record(connected, dnsTook, connectTook, tlsTook, ttfbTook, bodyTook, bodyBytes);
+            }
+
+            AppLog.d(TAG, call.request().method() + " " + call.request().url().encodedPath() + outcome
+                    + (connected
+                    ? ": dns=" + ms(dnsTook) + "ms connect=" + ms(connectTook) + "ms tls=" + ms(tlsTook) + "ms"
+                    : ": reused connection")
+                    + " request=" + ms(requestTook) + "ms bytes=" + bodyBytes);
+        }
+
+        private long ms(long nanos) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+
+    private static final class RouteStats {
+        private final Histogram dns = new Histogram();
+        private final Histogram connect = new Histogram();
+        private final Histogram tls = new Histogram();
+        private final Histogram ttfb = new Histogram();
+        private final Histogram body = new Histogram();
+        private final Histogram size = new Histogram();
+
+        void record(boolean connected, long dnsNanos, long connectNanos, long tlsNanos,
+                    long ttfbNanos, long bodyNanos, long bytes) {
+            // Setup phases only exist for calls that opened a connection
+            if (connected) {
+                dns.record(TimeUnit.NANOSECONDS.toMillis(dnsNanos));
+                connect.record(TimeUnit.NANOSECONDS.toMillis(connectNanos));
+                tls.record(TimeUnit.NANOSECONDS.toMillis(tlsNanos));
+            }
+            ttfb.record(TimeUnit.NANOSECONDS.toMillis(ttfbNanos));
+            body.record(TimeUnit.NANOSECONDS.toMillis(bodyNanos));
+            size.record(bytes);
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.add("dns_ms", toJson(dns));
+            json.add("connect_ms", toJson(connect));
+            json.add("tls_ms", toJson(tls));
+            json.add("ttfb_ms", toJson(ttfb));
+            json.add("body_ms", toJson(body));
+            json.add("size_bytes", toJson(size));
+            return json;
+        }
+
+        private static JsonObject toJson(Histogram histogram) {
+            JsonObject json = new JsonObject();
+            json.addProperty("count", histogram.getCount());
+            json.addProperty("p50", histogram.percentile(0.50));
+            json.addProperty("p95", histogram.percentile(0.95));
+            json.addProperty("p99", histogram.percentile(0.99));
+            json.addProperty("max", histogram.getMax());
+            json.addProperty("mean", histogram.getMean());
+            return json;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.devroad.Supabase;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * HttpCachePolicy - Response caching rules for the PostgREST content endpoints.
+ * Content responses are stored on disk and always revalidated with If-None-Match against
+ * the catalog ETag the server sets (see the content_etags migration), so an unchanged
+ * table costs a 304 instead of the full body; when the network is down a stored copy up to
+ * maxStaleSeconds old is served instead of failing.
+ */
+public class HttpCachePolicy {
+    // Read-only catalog endpoints; user-specific tables are never cached
+    private static final String[] CACHEABLE_PATHS = {
+            "/rest/v1/cours", "/rest/v1/lessons", "/rest/v1/flashcards", "/rest/v1/exercises"
+    };
+
+    private volatile int maxStaleSeconds;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong revalidatedCount = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public HttpCachePolicy(int maxStaleSeconds) {
+        this.maxStaleSeconds = maxStaleSeconds;
+    }
+
+    public void setMaxStaleSeconds(int maxStaleSeconds) {
+        this.maxStaleSeconds = maxStaleSeconds;
+    }
+
+    public static boolean isCacheable(Request request) {
+        if (!"GET".equals(request.method())) {
+            return false;
+        }
+        String path = request.url().encodedPath();
+        for (String cacheablePath : CACHEABLE_PATHS) {
+            if (path.equals(cacheablePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Application interceptor: falls back to a stale cached copy when the network fails,
+     * and counts how each response was served.
+     */
+    public Interceptor offlineInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            if (!isCacheable(request)) {
+                return chain.proceed(request);
+            }
+
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException networkError) {
+                Request staleRequest = request.newBuilder()
+                        .cacheControl(new CacheControl.Builder()
+                                .onlyIfCached()
+                                .maxStale(maxStaleSeconds, TimeUnit.SECONDS)
+                                .build())
+                        .build();
+                response = chain.proceed(staleRequest);
+                if (response.code() == 504) {
+                    // Unsatisfiable from cache, surface the real network error
+                    response.close();
+                    throw networkError;
+                }
+            }
+
+            record(response);
+            return response;
+        };
+    }
+
+    /**
+     * Network interceptor: PostgREST sends the ETag but no Cache-Control, so mark content
+     * responses as storable but always revalidated.
+     */
+    public Interceptor networkInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (!isCacheable(request) || !response.isSuccessful()) {
+                return response;
+            }
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .header("Cache-Control", "no-cache")
+                    .build();
+        };
+    }
+
+    private void record(Response response) {
+        Response cacheResponse = response.cacheResponse();
+        Response networkResponse = response.networkResponse();
+
+        if (cacheResponse != null && networkResponse == null) {
+            hitCount.incrementAndGet();
+            addBytesSaved(response);
+        } else if (cacheResponse != null && networkResponse.code() == 304) {
+            revalidatedCount.incrementAndGet();
+            addBytesSaved(response);
+        } else {
+            missCount.incrementAndGet();
+        }
+    }
+
+    private void addBytesSaved(Response response) {
+        if (response.body() != null && response.body().contentLength() > 0) {
+            bytesSaved.addAndGet(response.body().contentLength());
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getRevalidatedCount() {
+        return revalidatedCount.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    public String summary() {
+        return "hits=" + getHitCount()
+                + " revalidated=" + getRevalidatedCount()
+                + " misses=" + getMissCount()
+                + " bytesSaved=" + getBytesSaved();
+    }
+}
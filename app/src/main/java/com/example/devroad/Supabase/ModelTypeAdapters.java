@@ -0,0 +1,558 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.Models.ContentDeletion;
+import com.example.devroad.Models.Cours;
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.ExercisePayload;
+import com.example.devroad.Models.Flashcard;
+import com.example.devroad.Models.Lesson;
+import com.example.devroad.Models.LessonBundle;
+import com.example.devroad.Models.User;
+import com.example.devroad.Models.UserProgress;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ModelTypeAdapters - Hand-written Gson adapters for the Models classes. All model JSON goes
+ * through getGson() (or SupabaseClient's Gson built on it), so no JSON is (de)serialized by
+ * reflection and R8 is free to shrink and rename model fields. Plain Java and Gson only, so the
+ * benchmark module can compile it without Android.
+ */
+public final class ModelTypeAdapters implements TypeAdapterFactory {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapters())
+            .create();
+
+    private ModelTypeAdapters() {
+    }
+
+    /**
+     * Gson for the Models classes: the content database, the outbox and, extended with
+     * ApiTypeAdapters, Retrofit
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (raw == Cours.class) {
+            adapter = new CoursAdapter();
+        } else if (raw == Lesson.class) {
+            adapter = new LessonAdapter();
+        } else if (raw == LessonBundle.class) {
+            adapter = new LessonBundleAdapter(gson.getAdapter(new TypeToken<List<Flashcard>>() {}),
+                    gson.getAdapter(new TypeToken<List<Exercise>>() {}));
+        } else if (raw == Flashcard.class) {
+            adapter = new FlashcardAdapter();
+        } else if (raw == Exercise.class) {
+            adapter = new ExerciseAdapter();
+        } else if (raw == User.class) {
+            adapter = new UserAdapter();
+        } else if (raw == UserProgress.class) {
+            adapter = new UserProgressAdapter();
+        } else if (raw == ContentDeletion.class) {
+            adapter = new ContentDeletionAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    /**
+     * Reads and writes a JSON object field by field; unknown fields are skipped
+     */
+    abstract static class ObjectAdapter<T> extends TypeAdapter<T> {
+        abstract T newInstance();
+
+        /**
+         * @return false if the field is unknown
+         */
+        abstract boolean readField(T value, String name, JsonReader in) throws IOException;
+
+        abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            T value = newInstance();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!readField(value, in.nextName(), in)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            out.beginObject();
+            writeFields(out, value);
+            out.endObject();
+        }
+    }
+
+    private static final class CoursAdapter extends ObjectAdapter<Cours> {
+        @Override
+        Cours newInstance() {
+            return new Cours();
+        }
+
+        @Override
+        boolean readField(Cours cours, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id": cours.setId(readString(in)); return true;
+                case "title": cours.setTitle(readString(in)); return true;
+                case "description": cours.setDescription(readString(in)); return true;
+                case "icon": cours.setIcon(readString(in)); return true;
+                case "color": cours.setColor(readString(in)); return true;
+                case "is_premium": cours.setPremium(readBoolean(in)); return true;
+                case "required_score": cours.setRequiredScore(readInt(in)); return true;
+                case "order_index": cours.setOrderIndex(readInt(in)); return true;
+                case "updated_at": cours.setUpdatedAt(readString(in)); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Cours cours) throws IOException {
+            out.name("id").value(cours.getId());
+            out.name("title").value(cours.getTitle());
+            out.name("description").value(cours.getDescription());
+            out.name("icon").value(cours.getIcon());
+            out.name("color").value(cours.getColor());
+            out.name("is_premium").value(cours.isPremium());
+            out.name("required_score").value(cours.getRequiredScore());
+            out.name("order_index").value(cours.getOrderIndex());
+            out.name("updated_at").value(cours.getUpdatedAt());
+        }
+    }
+
+    private static class LessonAdapter extends ObjectAdapter<Lesson> {
+        @Override
+        Lesson newInstance() {
+            return new Lesson();
+        }
+
+        @Override
+        boolean readField(Lesson lesson, String name, JsonReader in) throws IOException {
+            return readLessonField(lesson, name, in);
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Lesson lesson) throws IOException {
+            writeLessonFields(out, lesson);
+        }
+    }
+
+    private static final class LessonBundleAdapter extends ObjectAdapter<LessonBundle> {
+        private final TypeAdapter<List<Flashcard>> flashcardsAdapter;
+        private final TypeAdapter<List<Exercise>> exercisesAdapter;
+
+        LessonBundleAdapter(TypeAdapter<List<Flashcard>> flashcardsAdapter,
+                            TypeAdapter<List<Exercise>> exercisesAdapter) {
+            this.flashcardsAdapter = flashcardsAdapter;
+            this.exercisesAdapter = exercisesAdapter;
+        }
+
+        @Override
+        LessonBundle newInstance() {
+            return new LessonBundle();
+        }
+
+        @Override
+        boolean readField(LessonBundle bundle, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "flashcards": bundle.setFlashcards(flashcardsAdapter.read(in)); return true;
+                case "exercises": bundle.setExercises(exercisesAdapter.read(in)); return true;
+                default: return readLessonField(bundle, name, in);
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, LessonBundle bundle) throws IOException {
+            writeLessonFields(out, bundle);
+            out.name("flashcards");
+            flashcardsAdapter.write(out, bundle.getFlashcards());
+            out.name("exercises");
+            exercisesAdapter.write(out, bundle.getExercises());
+        }
+    }
+
+    private static boolean readLessonField(Lesson lesson, String name, JsonReader in) throws IOException {
+        switch (name) {
+            case "id": lesson.setId(readString(in)); return true;
+            case "cours_id": lesson.setCoursId(readString(in)); return true;
+            case "title": lesson.setTitle(readString(in)); return true;
+            case "order_index": lesson.setOrderIndex(readInt(in)); return true;
+            case "is_premium": lesson.setPremium(readBoolean(in)); return true;
+            case "required_score": lesson.setRequiredScore(readInt(in)); return true;
+            case "updated_at": lesson.setUpdatedAt(readString(in)); return true;
+            default: return false;
+        }
+    }
+
+    private static void writeLessonFields(JsonWriter out, Lesson lesson) throws IOException {
+        out.name("id").value(lesson.getId());
+        out.name("cours_id").value(lesson.getCoursId());
+        out.name("title").value(lesson.getTitle());
+        out.name("order_index").value(lesson.getOrderIndex());
+        out.name("is_premium").value(lesson.isPremium());
+        out.name("required_score").value(lesson.getRequiredScore());
+        out.name("updated_at").value(lesson.getUpdatedAt());
+    }
+
+    private static final class FlashcardAdapter extends ObjectAdapter<Flashcard> {
+        @Override
+        Flashcard newInstance() {
+            return new Flashcard();
+        }
+
+        @Override
+        boolean readField(Flashcard card, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id": card.setId(readString(in)); return true;
+                case "lesson_id": card.setLessonId(readString(in)); return true;
+                case "front_content": card.setFrontContent(readString(in)); return true;
+                case "back_content": card.setBackContent(readString(in)); return true;
+                case "order_index": card.setOrderIndex(readInt(in)); return true;
+                case "updated_at": card.setUpdatedAt(readString(in)); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Flashcard card) throws IOException {
+            out.name("id").value(card.getId());
+            out.name("lesson_id").value(card.getLessonId());
+            out.name("front_content").value(card.getFrontContent());
+            out.name("back_content").value(card.getBackContent());
+            out.name("order_index").value(card.getOrderIndex());
+            out.name("updated_at").value(card.getUpdatedAt());
+        }
+    }
+
+    private static final class ExerciseAdapter extends ObjectAdapter<Exercise> {
+        @Override
+        Exercise newInstance() {
+            return new Exercise();
+        }
+
+        @Override
+        public Exercise read(JsonReader in) throws IOException {
+            Exercise exercise = newInstance();
+            // Only needed if a row lists data before type; decoded as soon as the row ends
+            JsonElement pendingData = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("data".equals(name)) {
+                    if (exercise.getType() != null) {
+                        exercise.setPayload(readPayload(exercise.getType(), in));
+                    } else {
+                        pendingData = JsonParser.parseReader(in);
+                    }
+                } else if (!readField(exercise, name, in)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (pendingData != null) {
+                exercise.setPayload(readPayload(exercise.getType(),
+                        new JsonReader(new StringReader(pendingData.toString()))));
+            } else if (exercise.getPayload() == null) {
+                // No data key at all: an empty payload of the right type, like "data": null,
+                // so rendering and grading never see a null payload
+                exercise.setPayload(readPayload(exercise.getType(), new JsonReader(new StringReader("null"))));
+            }
+            return exercise;
+        }
+
+        @Override
+        boolean readField(Exercise exercise, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id": exercise.setId(readString(in)); return true;
+                case "lesson_id": exercise.setLessonId(readString(in)); return true;
+                case "type": exercise.setType(readString(in)); return true;
+                case "question": exercise.setQuestion(readString(in)); return true;
+                case "answer": exercise.setAnswer(readString(in)); return true;
+                case "points": exercise.setPoints(readInt(in)); return true;
+                case "order_index": exercise.setOrderIndex(readInt(in)); return true;
+                case "updated_at": exercise.setUpdatedAt(readString(in)); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Exercise exercise) throws IOException {
+            out.name("id").value(exercise.getId());
+            out.name("lesson_id").value(exercise.getLessonId());
+            out.name("type").value(exercise.getType());
+            out.name("question").value(exercise.getQuestion());
+            out.name("data");
+            writePayload(out, exercise.getPayload());
+            out.name("answer").value(exercise.getAnswer());
+            out.name("points").value(exercise.getPoints());
+            out.name("order_index").value(exercise.getOrderIndex());
+            out.name("updated_at").value(exercise.getUpdatedAt());
+        }
+    }
+
+    /**
+     * Decode an exercise data object straight into its typed payload, without a JsonObject tree
+     */
+    private static ExercisePayload readPayload(String type, JsonReader in) throws IOException {
+        if (!isKnownExerciseType(type)) {
+            JsonElement json = JsonParser.parseReader(in);
+            return new ExercisePayload.Unsupported(type, json.isJsonNull() ? null : json.toString());
+        }
+
+        List<String> items = null;
+        List<String> targets = null;
+        List<String> options = null;
+        List<String> lines = null;
+        List<ExercisePayload.Blank> blanks = null;
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+        } else {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "items": items = readStrings(in); break;
+                    case "targets": targets = readStrings(in); break;
+                    case "options": options = readStrings(in); break;
+                    case "lines": lines = readStrings(in); break;
+                    case "blanks": blanks = readBlanks(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+
+        switch (type) {
+            case ExercisePayload.TYPE_DRAG_DROP:
+                return new ExercisePayload.DragDrop(items, targets);
+            case ExercisePayload.TYPE_MULTIPLE_CHOICE:
+                return new ExercisePayload.MultipleChoice(options);
+            case ExercisePayload.TYPE_FILL_BLANKS:
+                return new ExercisePayload.FillBlanks(blanks);
+            default:
+                return new ExercisePayload.ArrangeCode(lines);
+        }
+    }
+
+    private static boolean isKnownExerciseType(String type) {
+        return ExercisePayload.TYPE_DRAG_DROP.equals(type)
+                || ExercisePayload.TYPE_MULTIPLE_CHOICE.equals(type)
+                || ExercisePayload.TYPE_FILL_BLANKS.equals(type)
+                || ExercisePayload.TYPE_ARRANGE_CODE.equals(type);
+    }
+
+    private static List<ExercisePayload.Blank> readBlanks(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<ExercisePayload.Blank> blanks = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            String text = null;
+            List<String> options = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "text": text = readString(in); break;
+                    case "options": options = readStrings(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            blanks.add(new ExercisePayload.Blank(text, options));
+        }
+        in.endArray();
+        return blanks;
+    }
+
+    private static void writePayload(JsonWriter out, ExercisePayload payload) throws IOException {
+        if (payload == null) {
+            out.nullValue();
+            return;
+        }
+        if (payload instanceof ExercisePayload.Unsupported) {
+            String json = ((ExercisePayload.Unsupported) payload).getJson();
+            if (json == null) {
+                out.nullValue();
+            } else {
+                out.jsonValue(json);
+            }
+            return;
+        }
+
+        out.beginObject();
+        if (payload instanceof ExercisePayload.DragDrop) {
+            ExercisePayload.DragDrop dragDrop = (ExercisePayload.DragDrop) payload;
+            writeStrings(out.name("items"), dragDrop.getItems());
+            writeStrings(out.name("targets"), dragDrop.getTargets());
+        } else if (payload instanceof ExercisePayload.MultipleChoice) {
+            writeStrings(out.name("options"), ((ExercisePayload.MultipleChoice) payload).getOptions());
+        } else if (payload instanceof ExercisePayload.FillBlanks) {
+            out.name("blanks").beginArray();
+            for (ExercisePayload.Blank blank : ((ExercisePayload.FillBlanks) payload).getBlanks()) {
+                out.beginObject();
+                out.name("text").value(blank.getText());
+                writeStrings(out.name("options"), blank.getOptions());
+                out.endObject();
+            }
+            out.endArray();
+        } else if (payload instanceof ExercisePayload.ArrangeCode) {
+            writeStrings(out.name("lines"), ((ExercisePayload.ArrangeCode) payload).getLines());
+        }
+        out.endObject();
+    }
+
+    private static final class UserAdapter extends ObjectAdapter<User> {
+        @Override
+        User newInstance() {
+            return new User();
+        }
+
+        @Override
+        boolean readField(User user, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id": user.setId(readString(in)); return true;
+                case "username": user.setUsername(readString(in)); return true;
+                case "email": user.setEmail(readString(in)); return true;
+                case "score": user.setScore(readInt(in)); return true;
+                case "created_at": user.setCreatedAt(readString(in)); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, User user) throws IOException {
+            out.name("id").value(user.getId());
+            out.name("username").value(user.getUsername());
+            out.name("email").value(user.getEmail());
+            out.name("score").value(user.getScore());
+            out.name("created_at").value(user.getCreatedAt());
+        }
+    }
+
+    private static final class UserProgressAdapter extends ObjectAdapter<UserProgress> {
+        @Override
+        UserProgress newInstance() {
+            return new UserProgress();
+        }
+
+        @Override
+        boolean readField(UserProgress progress, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id": progress.setId(readString(in)); return true;
+                case "user_id": progress.setUserId(readString(in)); return true;
+                case "lesson_id": progress.setLessonId(readString(in)); return true;
+                case "completed": progress.setCompleted(readBoolean(in)); return true;
+                case "score": progress.setScore(readInt(in)); return true;
+                case "updated_at": progress.setUpdatedAt(readString(in)); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, UserProgress progress) throws IOException {
+            out.name("id").value(progress.getId());
+            out.name("user_id").value(progress.getUserId());
+            out.name("lesson_id").value(progress.getLessonId());
+            out.name("completed").value(progress.isCompleted());
+            out.name("score").value(progress.getScore());
+            out.name("updated_at").value(progress.getUpdatedAt());
+        }
+    }
+
+    private static final class ContentDeletionAdapter extends ObjectAdapter<ContentDeletion> {
+        @Override
+        ContentDeletion newInstance() {
+            return new ContentDeletion();
+        }
+
+        @Override
+        boolean readField(ContentDeletion deletion, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "table_name": deletion.setTableName(readString(in)); return true;
+                case "row_id": deletion.setRowId(readString(in)); return true;
+                case "deleted_at": deletion.setDeletedAt(readString(in)); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ContentDeletion deletion) throws IOException {
+            out.name("table_name").value(deletion.getTableName());
+            out.name("row_id").value(deletion.getRowId());
+            out.name("deleted_at").value(deletion.getDeletedAt());
+        }
+    }
+
+    static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    static List<String> readStrings(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(readString(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+    static void writeStrings(JsonWriter out, List<String> values) throws IOException {
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    static int readInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    static boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+        return in.nextBoolean();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.services.AppLog;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * NetworkLoggingInterceptor - Replacement for HttpLoggingInterceptor at Level.BODY.
+ * Only a sample of calls is logged, credentials are redacted, and bodies are peeked
+ * up to maxBodyBytes instead of being buffered and stringified in full. Bodies of auth/v1
+ * calls are never logged: they carry the password and the session tokens.
+ */
+public class NetworkLoggingInterceptor implements Interceptor {
+    private static final String TAG = "SupabaseHttp";
+    private static final String[] REDACTED_HEADERS = {"apikey", "Authorization"};
+    private static final String AUTH_PATH = "/auth/v1/";
+
+    private final double sampleRate;
+    private final int maxBodyBytes;
+
+    /**
+     * @param sampleRate   fraction of calls to log, 1.0 logs everything
+     * @param maxBodyBytes body bytes to log per request/response, 0 logs headers only
+     */
+    public NetworkLoggingInterceptor(double sampleRate, int maxBodyBytes) {
+        this.sampleRate = sampleRate;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return chain.proceed(request);
+        }
+
+        StringBuilder requestLog = new StringBuilder()
+                .append("--> ").append(request.method()).append(' ').append(request.url());
+        appendHeaders(requestLog, request.headers());
+        boolean logBodies = maxBodyBytes > 0 && !request.url().encodedPath().contains(AUTH_PATH);
+        if (logBodies && request.body() != null) {
+            appendRequestBody(requestLog, request.body());
+        }
+        AppLog.i(TAG, requestLog.toString());
+
+        long startNs = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            AppLog.i(TAG, "<-- HTTP FAILED: " + e);
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        StringBuilder responseLog = new StringBuilder()
+                .append("<-- ").append(response.code()).append(' ').append(request.url())
+                .append(" (").append(tookMs).append("ms)");
+        appendHeaders(responseLog, response.headers());
+        if (logBodies) {
+            ResponseBody peeked = response.peekBody(maxBodyBytes);
+            appendTruncated(responseLog, peeked.string(), response.body() != null
+                    ? response.body().contentLength() : -1);
+        }
+        AppLog.i(TAG, responseLog.toString());
+
+        return response;
+    }
+
+    private void appendHeaders(StringBuilder log, Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            log.append('\n').append(name).append(": ")
+                    .append(isRedacted(name) ? "██" : headers.value(i));
+        }
+    }
+
+    private void appendRequestBody(StringBuilder log, RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        long size = buffer.size();
+        Charset charset = StandardCharsets.UTF_8;
+        MediaType contentType = body.contentType();
+        if (contentType != null) {
+            charset = contentType.charset(StandardCharsets.UTF_8);
+        }
+        appendTruncated(log, buffer.readString(Math.min(size, maxBodyBytes), charset), size);
+    }
+
+    private void appendTruncated(StringBuilder log, String body, long totalBytes) {
+        log.append('\n').append(body);
+        if (totalBytes > maxBodyBytes) {
+            log.append("… (").append(totalBytes).append(" bytes, truncated)");
+        }
+    }
+
+    private static boolean isRedacted(String headerName) {
+        for (String redacted : REDACTED_HEADERS) {
+            if (redacted.equalsIgnoreCase(headerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.devroad.Supabase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgrestQuery - Builds the query parameters of a PostgREST read: the columns to select
+ * (including embedded relations), filters, ordering and limit. Passed to SupabaseDataApi
+ * through @QueryMap, so every call names exactly the columns its screen uses instead of "*".
+ */
+public final class PostgrestQuery {
+
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> order = new ArrayList<>();
+    private final Map<String, String> filters = new LinkedHashMap<>();
+    private final Map<String, PostgrestQuery> embedded = new LinkedHashMap<>();
+    private Integer limit;
+
+    private PostgrestQuery(List<String> columns) {
+        this.columns.addAll(columns);
+    }
+
+    public static PostgrestQuery select(String... columns) {
+        return new PostgrestQuery(Arrays.asList(columns));
+    }
+
+    public static PostgrestQuery select(List<String> columns) {
+        return new PostgrestQuery(columns);
+    }
+
+    /**
+     * Embed a related table, e.g. flashcards(id,front_content) on lessons.
+     * The nested query's columns, ordering and limit apply to the embedded rows.
+     */
+    public PostgrestQuery embed(String relation, PostgrestQuery nested) {
+        embedded.put(relation, nested);
+        return this;
+    }
+
+    public PostgrestQuery eq(String column, String value) {
+        return filter(column, "eq.", value);
+    }
+
+    public PostgrestQuery gt(String column, String value) {
+        return filter(column, "gt.", value);
+    }
+
+    public PostgrestQuery gte(String column, String value) {
+        return filter(column, "gte.", value);
+    }
+
+    /**
+     * Rows strictly after a (column, id) keyset cursor, for pages ordered by column then id.
+     * Does nothing when value is null, i.e. on the first page.
+     */
+    public PostgrestQuery after(String column, String value, String id) {
+        return after(column, value, "id", id);
+    }
+
+    /**
+     * after() for tables whose tie-breaking key is not named id
+     */
+    public PostgrestQuery after(String column, String value, String idColumn, String id) {
+        if (value == null) {
+            return this;
+        }
+        // Quoted so timestamps with ':' and '+' survive the logic tree syntax
+        String quoted = "\"" + value + "\"";
+        filters.put("or", "(" + column + ".gt." + quoted
+                + ",and(" + column + ".eq." + quoted + "," + idColumn + ".gt." + id + "))");
+        return this;
+    }
+
+    public PostgrestQuery orderAsc(String column) {
+        order.add(column + ".asc");
+        return this;
+    }
+
+    public PostgrestQuery orderDesc(String column) {
+        order.add(column + ".desc");
+        return this;
+    }
+
+    public PostgrestQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * The parameters for @QueryMap; Retrofit URL-encodes the values
+     */
+    public Map<String, String> toQueryMap() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("select", selectClause());
+        putParams(params, "");
+        return Collections.unmodifiableMap(params);
+    }
+
+    /**
+     * Unencoded form, for logs
+     */
+    @Override
+    public String toString() {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> param : toQueryMap().entrySet()) {
+            if (query.length() > 0) {
+                query.append('&');
+            }
+            query.append(param.getKey()).append('=').append(param.getValue());
+        }
+        return query.toString();
+    }
+
+    private PostgrestQuery filter(String column, String operator, String value) {
+        if (value != null) {
+            filters.put(column, operator + value);
+        }
+        return this;
+    }
+
+    private String selectClause() {
+        StringBuilder select = new StringBuilder(String.join(",", columns));
+        for (Map.Entry<String, PostgrestQuery> relation : embedded.entrySet()) {
+            if (select.length() > 0) {
+                select.append(',');
+            }
+            select.append(relation.getKey()).append('(').append(relation.getValue().selectClause()).append(')');
+        }
+        return select.toString();
+    }
+
+    // Embedded filters, ordering and limit are prefixed with the relation, e.g. flashcards.order
+    private void putParams(Map<String, String> params, String prefix) {
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            params.put(prefix + filter.getKey(), filter.getValue());
+        }
+        if (!order.isEmpty()) {
+            params.put(prefix + "order", String.join(",", order));
+        }
+        if (limit != null) {
+            params.put(prefix + "limit", String.valueOf(limit));
+        }
+        for (Map.Entry<String, PostgrestQuery> relation : embedded.entrySet()) {
+            relation.getValue().putParams(params, prefix + relation.getKey() + ".");
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.services.AppLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * RetryPolicy - Blocking execution of SupabaseDataApi reads with retries and hedging.
+ * Transient failures (I/O errors, 408, 429, 5xx) are retried with exponential backoff and
+ * full jitter until the call's deadline budget runs out. Once an endpoint has enough latency
+ * samples, an attempt still running after that endpoint's p95 gets a second, hedged request
+ * and the first answer wins. Only GETs are retried or hedged; anything else runs exactly once.
+ * An open CircuitBreaker ends the call at once, without retries.
+ */
+public class RetryPolicy {
+    private static final String TAG = "RetryPolicy";
+
+    public static final long DEFAULT_BUDGET_MS = 20 * 1000;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_DELAY_MS = 250;
+    private static final long MAX_DELAY_MS = 4 * 1000;
+    // Below this many samples the p95 is noise, so no hedging yet
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private static final int LATENCY_WINDOW = 100;
+
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final Random random = new Random();
+    private final boolean hedging;
+
+    public RetryPolicy(boolean hedging) {
+        this.hedging = hedging;
+    }
+
+    public <T> Response<T> execute(Call<T> call) throws IOException {
+        return execute(call, DEFAULT_BUDGET_MS);
+    }
+
+    /**
+     * @param budgetMs wall-clock limit for all attempts together, backoff included
+     * @return the first successful response, or the last one if it is not worth retrying
+     * @throws IOException the last I/O failure once attempts or budget are exhausted
+     */
+    public <T> Response<T> execute(Call<T> call, long budgetMs) throws IOException {
+        if (!"GET".equals(call.request().method())) {
+            return call.execute();
+        }
+
+        String endpoint = call.request().url().encodedPath();
+        LatencyWindow window = latencies.computeIfAbsent(endpoint, key -> new LatencyWindow());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        IOException lastFailure = null;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long remainingMs = remainingMs(deadline);
+            if (remainingMs <= 0) {
+                break;
+            }
+
+            Call<T> attemptCall = attempt == 0 ? call : call.clone();
+            Response<T> response;
+            try {
+                response = hedgedAttempt(attemptCall, window, remainingMs);
+            } catch (IOException e) {
+                if (e instanceof CircuitBreaker.CircuitOpenException || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                lastFailure = e;
+                response = null;
+            }
+
+            if (response != null) {
+                if (!isTransient(response.code()) || attempt == MAX_ATTEMPTS - 1) {
+                    return response;
+                }
+                lastFailure = new IOException("HTTP " + response.code());
+            }
+
+            long delayMs = backoffMs(attempt, response);
+            if (delayMs >= remainingMs(deadline)) {
+                if (response != null) {
+                    return response;
+                }
+                break;
+            }
+            discard(response);
+            AppLog.d(TAG, endpoint + " attempt " + (attempt + 1) + " failed (" + lastFailure.getMessage()
+                    + "), retrying in " + delayMs + "ms");
+            sleep(delayMs);
+        }
+        throw lastFailure != null ? lastFailure : new InterruptedIOException("Deadline exceeded");
+    }
+
+    /**
+     * One attempt, plus a hedged copy if the first is slower than this endpoint's p95.
+     * Returns the first response, or the first failure once no request is left in flight.
+     */
+    private <T> Response<T> hedgedAttempt(Call<T> call, LatencyWindow window, long budgetMs)
+            throws IOException {
+        long hedgeAfterMs = hedging ? window.p95Ms() : -1;
+        if (hedgeAfterMs < 0 || hedgeAfterMs >= budgetMs) {
+            call.timeout().timeout(budgetMs, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            Response<T> response = call.execute();
+            window.record(System.nanoTime() - start);
+            return response;
+        }
+
+        Race<T> race = new Race<>(window);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        race.start(call, budgetMs);
+        Call<T> winner = null;
+        try {
+            Outcome<T> outcome = race.poll(hedgeAfterMs);
+            if (outcome == null) {
+                long remainingMs = remainingMs(deadline);
+                if (remainingMs > 0) {
+                    Call<T> hedge = call.clone();
+                    race.start(hedge, remainingMs);
+                    AppLog.d(TAG, "Hedging " + call.request().url().encodedPath()
+                            + " after " + hedgeAfterMs + "ms");
+                }
+            }
+            while (true) {
+                if (outcome == null) {
+                    outcome = race.poll(Math.max(remainingMs(deadline), 1));
+                    if (outcome == null) {
+                        throw new InterruptedIOException("Deadline exceeded");
+                    }
+                }
+                // A failed request only decides the race if nothing else is still running
+                boolean usable = outcome.response != null && !isTransient(outcome.response.code());
+                if (usable || race.finishedAll()) {
+                    winner = outcome.call;
+                    if (outcome.response != null) {
+                        return outcome.response;
+                    }
+                    throw outcome.failure;
+                }
+                discard(outcome.response);
+                outcome = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        } finally {
+            race.finish(winner);
+        }
+    }
+
+    static boolean isTransient(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * Full jitter over an exponentially growing cap, stretched to Retry-After when the server sends one
+     */
+    private long backoffMs(int attempt, Response<?> response) {
+        long cap = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << attempt);
+        long delay = (long) (random.nextDouble() * cap);
+        if (response != null) {
+            String retryAfter = response.headers().get("Retry-After");
+            if (retryAfter != null) {
+                try {
+                    delay = Math.max(delay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+                } catch (NumberFormatException ignored) {
+                    // HTTP-date form, keep the jittered delay
+                }
+            }
+        }
+        return delay;
+    }
+
+    private static long remainingMs(long deadlineNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    private static void sleep(long ms) throws InterruptedIOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted");
+        }
+    }
+
+    private static void discard(Response<?> response) {
+        if (response == null) {
+            return;
+        }
+        closeQuietly(response.errorBody());
+        if (response.body() instanceof Closeable) {
+            // Streaming calls hand back an unread ResponseBody
+            closeQuietly((Closeable) response.body());
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Outcome<T> {
+        final Call<T> call;
+        final Response<T> response;
+        final IOException failure;
+
+        Outcome(Call<T> call, Response<T> response, IOException failure) {
+            this.call = call;
+            this.response = response;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Requests racing for one attempt. Answers that arrive after the race is decided are closed.
+     */
+    private static final class Race<T> implements Callback<T> {
+        private final LatencyWindow window;
+        private final BlockingQueue<Outcome<T>> outcomes = new LinkedBlockingQueue<>();
+        private final Map<Call<T>, Long> startedAt = new ConcurrentHashMap<>();
+        private int started;
+        private int received;
+        private boolean finished;
+
+        Race(LatencyWindow window) {
+            this.window = window;
+        }
+
+        void start(Call<T> call, long timeoutMs) {
+            call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+            startedAt.put(call, System.nanoTime());
+            synchronized (this) {
+                started++;
+            }
+            call.enqueue(this);
+        }
+
+        Outcome<T> poll(long timeoutMs) throws InterruptedException {
+            Outcome<T> outcome = outcomes.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            if (outcome != null) {
+                synchronized (this) {
+                    received++;
+                }
+            }
+            return outcome;
+        }
+
+        synchronized boolean finishedAll() {
+            return received == started;
+        }
+
+        /**
+         * Cancel every request but the winner, whose body may still be streaming
+         */
+        void finish(Call<T> winner) {
+            synchronized (this) {
+                finished = true;
+            }
+            for (Call<T> call : startedAt.keySet()) {
+                if (call != winner) {
+                    call.cancel();
+                }
+            }
+            Outcome<T> late;
+            while ((late = outcomes.poll()) != null) {
+                discard(late.response);
+            }
+        }
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            Long start = startedAt.get(call);
+            if (start != null) {
+                window.record(System.nanoTime() - start);
+            }
+            deliver(new Outcome<>(call, response, null));
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            IOException failure = t instanceof IOException ? (IOException) t : new IOException(t);
+            deliver(new Outcome<>(call, null, failure));
+        }
+
+        private void deliver(Outcome<T> outcome) {
+            synchronized (this) {
+                if (!finished) {
+                    outcomes.add(outcome);
+                    return;
+                }
+            }
+            discard(outcome.response);
+        }
+    }
+
+    /**
+     * Recent latencies of one endpoint, for its p95
+     */
+    private static final class LatencyWindow {
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private int count;
+        private int next;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long p95Ms() {
+            if (count < MIN_HEDGE_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.ceil(count * 0.95) - 1]);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.devroad.Supabase;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * SingleFlight - Coalesces identical in-flight GETs on SupabaseDataApi.
+ * While a query for a given URL (path and parameters) is running, further callers
+ * block on it and receive its response instead of opening another request. A list body is
+ * copied for each follower, so callers never share a mutable list.
+ * The shared request runs through the RetryPolicy, so followers also share its retries.
+ * If the leading caller is cancelled or interrupted, followers do not inherit that: each one
+ * runs its own call again.
+ */
+public class SingleFlight {
+    private final Map<String, CompletableFuture<Response<?>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong savedRequests = new AtomicLong();
+    private final RetryPolicy retryPolicy;
+
+    public SingleFlight(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Blocking execute that shares the network call with any identical one already running.
+     * Non-GET calls are executed directly.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Response<T> execute(Call<T> call) throws IOException {
+        Request request = call.request();
+        if (!"GET".equals(request.method())) {
+            return call.execute();
+        }
+
+        String key = request.url().toString();
+        CompletableFuture<Response<?>> mine = new CompletableFuture<>();
+        CompletableFuture<Response<?>> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            savedRequests.incrementAndGet();
+            try {
+                return (Response<T>) copyOf(await(existing));
+            } catch (LeaderCancelledException e) {
+                // Someone else's cancellation, not ours: run this caller's own call
+                savedRequests.decrementAndGet();
+                return execute(call);
+            }
+        }
+
+        try {
+            Response<T> response = retryPolicy.execute(call);
+            mine.complete(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            boolean cancelled = call.isCanceled() || Thread.currentThread().isInterrupted();
+            mine.completeExceptionally(cancelled ? new LeaderCancelledException() : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Response<?> copyOf(Response<?> response) {
+        if (response.isSuccessful() && response.body() instanceof List) {
+            return Response.success(new ArrayList<>((List<?>) response.body()), response.raw());
+        }
+        return response;
+    }
+
+    private static Response<?> await(CompletableFuture<Response<?>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for shared request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * The leading caller gave up, so there is no result to share
+     */
+    private static class LeaderCancelledException extends IOException {
+        LeaderCancelledException() {
+            super("Shared request was cancelled by its leading caller");
+        }
+    }
+
+    /**
+     * Number of network calls avoided because an identical one was already in flight
+     */
+    public long getSavedRequestCount() {
+        return savedRequests.get();
+    }
+}
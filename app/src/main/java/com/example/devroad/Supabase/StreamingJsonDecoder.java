@@ -0,0 +1,99 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.Flashcard;
+import com.example.devroad.Models.LessonBundle;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+/**
+ * StreamingJsonDecoder - Decodes PostgREST list responses element by element with a JsonReader
+ * straight off the socket (pair it with @Streaming calls). The first page of items is handed
+ * out as soon as it has been read, so a screen can render while the rest is still arriving.
+ */
+public class StreamingJsonDecoder {
+
+    public interface FirstPageListener<T> {
+        /**
+         * Called on the reading thread once pageSize items have been decoded
+         */
+        void onFirstPage(List<T> items);
+    }
+
+    private final Gson gson;
+
+    public StreamingJsonDecoder(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Decode a top-level JSON array. The body is always closed.
+     */
+    public <T> List<T> readList(ResponseBody body, Class<T> type, int pageSize,
+                                FirstPageListener<T> listener) throws IOException {
+        try (JsonReader reader = gson.newJsonReader(body.charStream())) {
+            return readArray(reader, gson.getAdapter(type), pageSize, listener);
+        }
+    }
+
+    /**
+     * Decode the first lesson of a lessons?select=id,flashcards(...),exercises(...) response.
+     * Only the embedded lists are kept; other lesson columns are skipped. The body is always closed.
+     */
+    public LessonBundle readLessonBundle(ResponseBody body, int pageSize,
+                                         FirstPageListener<Flashcard> flashcardPages,
+                                         FirstPageListener<Exercise> exercisePages) throws IOException {
+        LessonBundle bundle = new LessonBundle();
+        try (JsonReader reader = gson.newJsonReader(body.charStream())) {
+            reader.beginArray();
+            if (!reader.hasNext()) {
+                return bundle;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "flashcards":
+                        bundle.setFlashcards(readArray(reader, gson.getAdapter(Flashcard.class),
+                                pageSize, flashcardPages));
+                        break;
+                    case "exercises":
+                        bundle.setExercises(readArray(reader, gson.getAdapter(Exercise.class),
+                                pageSize, exercisePages));
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            // Anything after the first lesson is not needed, closing drops the rest of the body
+        }
+        return bundle;
+    }
+
+    private static <T> List<T> readArray(JsonReader reader, TypeAdapter<T> adapter, int pageSize,
+                                         FirstPageListener<T> listener) throws IOException {
+        List<T> items = new ArrayList<>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return items;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            items.add(adapter.read(reader));
+            if (listener != null && items.size() == pageSize) {
+                listener.onFirstPage(Collections.unmodifiableList(new ArrayList<>(items)));
+            }
+        }
+        reader.endArray();
+        return items;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.devroad.Supabase;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * SupabaseTasks - CompletableFuture helpers over the Retrofit calls of SupabaseAuthApi and
+ * SupabaseDataApi, in place of nested Callback classes.
+ * A call's future completes with the response body, or fails with HttpException for a non-2xx
+ * status and with the IOException for a network error. Cancelling the future cancels the HTTP
+ * call. Independent calls can be started together and joined with CompletableFuture.allOf;
+ * continuations that touch views go through mainThread(), and a Scope cancels whatever an
+ * Activity still has running when it is destroyed.
+ */
+public final class SupabaseTasks {
+    private static final Executor MAIN_THREAD = new Executor() {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    };
+
+    // Only fires timeouts; the work itself never runs here
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "supabase-task-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SupabaseTasks() {
+    }
+
+    /**
+     * Start the call asynchronously. The future completes on an OkHttp thread.
+     */
+    public static <T> CompletableFuture<T> call(Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        // Cancelled or timed out from outside: stop the request too
+        future.whenComplete((body, error) -> {
+            if (error != null) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                if (response.isSuccessful()) {
+                    future.complete(response.body());
+                } else {
+                    future.completeExceptionally(new HttpException(response));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Fail the future with a TimeoutException if it has not completed in time. Like Java 9's
+     * orTimeout, which is not available before API 31. A call future also cancels its request.
+     */
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        if (future.isDone()) {
+            return future;
+        }
+        ScheduledFuture<?> timer = TIMER.schedule(() -> {
+            future.completeExceptionally(new TimeoutException("Timed out after " + unit.toMillis(timeout) + "ms"));
+        }, timeout, unit);
+        future.whenComplete((value, error) -> timer.cancel(false));
+        return future;
+    }
+
+    /**
+     * Executor for continuations that update the UI, e.g. thenAcceptAsync(..., mainThread())
+     */
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    /**
+     * The cause behind a CompletionException, as seen by exceptionally/handle stages
+     */
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * A Scope bound to the owner's lifecycle; must be created on the main thread
+     */
+    public static Scope scope(LifecycleOwner owner) {
+        Scope scope = new Scope();
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            scope.cancelAll();
+            return scope;
+        }
+        owner.getLifecycle().addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.getLifecycle().removeObserver(this);
+                    scope.cancelAll();
+                }
+            }
+        });
+        return scope;
+    }
+
+    /**
+     * Calls started for one screen. When the screen goes away they are cancelled, so their
+     * continuations never run and release the Activity they captured.
+     */
+    public static final class Scope {
+        private final Set<CompletableFuture<?>> running = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+
+        private Scope() {
+        }
+
+        /**
+         * SupabaseTasks.call, cancelled with the scope
+         */
+        public <T> CompletableFuture<T> call(Call<T> call) {
+            return track(SupabaseTasks.call(call));
+        }
+
+        /**
+         * Cancel the future with the scope; it is forgotten once it completes
+         */
+        public <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+            running.add(future);
+            future.whenComplete((value, error) -> running.remove(future));
+            if (cancelled) {
+                future.cancel(true);
+            }
+            return future;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        void cancelAll() {
+            cancelled = true;
+            for (CompletableFuture<?> future : running) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.devroad.Supabase;
+
+import android.util.Base64;
+import android.util.Log;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * TokenAuthenticator - Owns the session tokens and keeps the access token valid.
+ * Tokens are refreshed ahead of expiry (read from the JWT exp claim) and again on any 401,
+ * after which OkHttp retries the failed request. Only one refresh runs at a time; callers
+ * that were waiting on it reuse its result instead of refreshing again. The tokens themselves
+ * are swapped as one immutable pair, so setTokens never waits on a refresh in progress.
+ */
+public class TokenAuthenticator implements Authenticator {
+    private static final String TAG = "TokenAuthenticator";
+    // Refresh this long before the token actually expires
+    private static final long EXPIRY_MARGIN_SECONDS = 60;
+
+    /**
+     * Notified on the refreshing thread, e.g. to persist the new tokens
+     */
+    public interface TokenListener {
+        void onTokensRefreshed(String accessToken, String refreshToken);
+    }
+
+    private final AtomicReference<Tokens> tokens = new AtomicReference<>(Tokens.NONE);
+    // Serialises the network refresh only; never held by setTokens or getAccessToken
+    private final Object refreshLock = new Object();
+    private volatile TokenListener listener;
+    private SupabaseClient.SupabaseAuthApi authApi;
+
+    void setAuthApi(SupabaseClient.SupabaseAuthApi authApi) {
+        this.authApi = authApi;
+    }
+
+    public void setListener(TokenListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Safe on the main thread: never blocks, even while a refresh is running
+     */
+    public void setTokens(String accessToken, String refreshToken) {
+        tokens.set(new Tokens(accessToken, refreshToken));
+    }
+
+    public String getAccessToken() {
+        return tokens.get().accessToken;
+    }
+
+    /**
+     * Token to send with a new request, refreshed first if it is about to expire
+     */
+    String validAccessToken() {
+        Tokens current = tokens.get();
+        String token = current.accessToken;
+        long exp = current.expiresAt;
+        if (token != null && exp > 0
+                && System.currentTimeMillis() / 1000 >= exp - EXPIRY_MARGIN_SECONDS) {
+            String refreshed = refresh(token);
+            if (refreshed != null) {
+                return refreshed;
+            }
+        }
+        return token;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) throws IOException {
+        Request request = response.request();
+        String authorization = request.header("Authorization");
+        if (isAuthRequest(request) || authorization == null || !authorization.startsWith("Bearer ")
+                || response.priorResponse() != null) {
+            // Not ours to fix, or the refreshed token was rejected too
+            return null;
+        }
+
+        String refreshed = refresh(authorization.substring("Bearer ".length()));
+        if (refreshed == null) {
+            return null;
+        }
+        return request.newBuilder()
+                .header("Authorization", "Bearer " + refreshed)
+                .build();
+    }
+
+    /**
+     * Exchange the refresh token for a new session, unless another thread already
+     * did so while this one was waiting.
+     *
+     * @param staleToken the access token the caller saw expire or get rejected
+     * @return the current access token, or null when the session could not be refreshed
+     */
+    private String refresh(String staleToken) {
+        synchronized (refreshLock) {
+            Tokens stale = tokens.get();
+            if (stale.accessToken != null && !stale.accessToken.equals(staleToken)) {
+                return stale.accessToken;
+            }
+            if (stale.refreshToken == null || authApi == null) {
+                return null;
+            }
+
+            try {
+                retrofit2.Response<SupabaseClient.AuthResponse> response = authApi
+                        .refreshToken(new SupabaseClient.RefreshTokenRequest(stale.refreshToken))
+                        .execute();
+                SupabaseClient.AuthResponse body = response.body();
+                if (!response.isSuccessful() || body == null || body.accessToken == null) {
+                    Log.w(TAG, "Token refresh rejected: HTTP " + response.code());
+                    return null;
+                }
+
+                Tokens refreshed = new Tokens(body.accessToken,
+                        body.refreshToken != null ? body.refreshToken : stale.refreshToken);
+                if (!tokens.compareAndSet(stale, refreshed)) {
+                    // A new session was set (e.g. a fresh sign-in) while this one was refreshing
+                    return tokens.get().accessToken;
+                }
+                TokenListener current = listener;
+                if (current != null) {
+                    current.onTokensRefreshed(refreshed.accessToken, refreshed.refreshToken);
+                }
+                return refreshed.accessToken;
+            } catch (IOException e) {
+                Log.w(TAG, "Token refresh failed: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    static boolean isAuthRequest(Request request) {
+        return request.url().encodedPath().startsWith("/auth/v1/token");
+    }
+
+    /**
+     * One session's tokens, replaced as a whole
+     */
+    private static final class Tokens {
+        static final Tokens NONE = new Tokens(null, null);
+
+        final String accessToken;
+        final String refreshToken;
+        // exp claim of accessToken in epoch seconds, 0 when unknown
+        final long expiresAt;
+
+        Tokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.expiresAt = readExpiry(accessToken);
+        }
+    }
+
+    /**
+     * Read the exp claim without verifying the signature; the server still does that
+     */
+    private static long readExpiry(String jwt) {
+        if (jwt == null) {
+            return 0;
+        }
+        String[] parts = jwt.split("\\.");
+        if (parts.length < 2) {
+            return 0;
+        }
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            JsonObject claims = JsonParser.parseString(new String(payload, StandardCharsets.UTF_8))
+                    .getAsJsonObject();
+            return claims.has("exp") ? claims.get("exp").getAsLong() : 0;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read token expiry: " + e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.devroad.services;
+
+import android.util.Log;
+
+import com.example.devroad.BuildConfig;
+
+/**
+ * AppLog - Logging facade for hot paths.
+ * Debug and verbose messages only reach logcat in debug builds, and R8 strips the
+ * calls entirely from minified release builds (see proguard-rules.pro).
+ * Warnings and errors are always logged.
+ */
+public final class AppLog {
+    public static final boolean DEBUG_ENABLED = BuildConfig.DEBUG;
+
+    private AppLog() {
+    }
+
+    public static void d(String tag, String message) {
+        if (DEBUG_ENABLED) {
+            Log.d(tag, message);
+        }
+    }
+
+    public static void i(String tag, String message) {
+        Log.i(tag, message);
+    }
+
+    public static void w(String tag, String message) {
+        Log.w(tag, message);
+    }
+
+    public static void e(String tag, String message) {
+        Log.e(tag, message);
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        Log.e(tag, message, error);
+    }
+}
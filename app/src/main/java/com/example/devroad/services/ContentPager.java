@@ -0,0 +1,141 @@
+package com.example.devroad.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ContentPager - Paged list state for a RecyclerView screen. Keeps the pages loaded so far and
+ * asks ContentRepository for the next one only when asked to (see PagingScrollListener), so
+ * memory and time to first row do not grow with the size of the catalog.
+ * Must be used from the main thread.
+ */
+public class ContentPager<T> {
+
+    public interface PageSource<T> {
+        /**
+         * Load the page after the given item (null for the first page), like the
+         * ContentRepository *Page methods
+         */
+        void loadPage(T after, ContentRepository.ContentCallback<List<T>> callback);
+    }
+
+    public interface Listener<T> {
+        void onItemsChanged(List<T> items);
+
+        void onError(String message);
+
+        /**
+         * Loaded pages are cached copies that could not be refreshed
+         */
+        void onStale(String message);
+    }
+
+    private final PageSource<T> source;
+    private final int pageSize;
+    private final Listener<T> listener;
+    private final List<List<T>> pages = new ArrayList<>();
+    // Bumped by reload() so answers for an older list are dropped
+    private int generation;
+    private boolean loading;
+    private boolean endReached;
+
+    public ContentPager(PageSource<T> source, int pageSize, Listener<T> listener) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return !endReached;
+    }
+
+    /**
+     * Drop every loaded page and start again from the first one
+     */
+    public void reload() {
+        generation++;
+        pages.clear();
+        loading = false;
+        endReached = false;
+        loadNextPage();
+    }
+
+    public void loadNextPage() {
+        if (loading || endReached) {
+            return;
+        }
+        loading = true;
+
+        final int requestGeneration = generation;
+        final int pageIndex = pages.size();
+        T after = null;
+        if (pageIndex > 0) {
+            List<T> previous = pages.get(pageIndex - 1);
+            after = previous.get(previous.size() - 1);
+        }
+
+        source.loadPage(after, new ContentRepository.ContentCallback<List<T>>() {
+            private boolean delivered;
+
+            @Override
+            public void onData(List<T> page, boolean fromCache) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                // A fresh copy of a page replaces the cached one in place
+                if (pageIndex < pages.size()) {
+                    pages.set(pageIndex, page);
+                } else {
+                    pages.add(page);
+                }
+                delivered = true;
+                if (!fromCache) {
+                    loading = false;
+                    endReached = page.size() < pageSize;
+                    if (page.isEmpty()) {
+                        pages.remove(pageIndex);
+                    }
+                }
+                listener.onItemsChanged(getItems());
+            }
+
+            @Override
+            public void onStale(String message) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                // The cached page stays; the next scroll asks for the page after it
+                loading = false;
+                listener.onStale(message);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                // Keep whatever was cached; the next scroll retries the page
+                loading = false;
+                if (!delivered) {
+                    listener.onError(message);
+                }
+            }
+        });
+    }
+
+    /**
+     * All loaded items in order, as a new list on every call; adapters diff it against what
+     * they show by id, so it can be handed to them as is.
+     */
+    public List<T> getItems() {
+        List<T> items = new ArrayList<>();
+        for (List<T> page : pages) {
+            items.addAll(page);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.devroad.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.devroad.Database.ContentDatabase;
+import com.example.devroad.Models.Cours;
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.Flashcard;
+import com.example.devroad.Models.Lesson;
+import com.example.devroad.Models.LessonBundle;
+import com.example.devroad.Supabase.PostgrestQuery;
+import com.example.devroad.Supabase.StreamingJsonDecoder;
+import com.example.devroad.Supabase.SupabaseClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * ContentRepository - Single read path for course content.
+ * Serves cached rows immediately (memory, then the on-device database) and
+ * revalidates against Supabase in the background, so screens never wait on the network
+ * when they have already been opened once. Once a table has been fully synced by
+ * ContentSync, revalidation only asks for rows changed since the last sync.
+ */
+public class ContentRepository {
+    private static final String TAG = "ContentRepository";
+    private static final long BUNDLE_FRESH_MS = 5 * 60 * 1000;
+
+    // Columns each screen renders, plus the keys the local cache and page cursor need
+    private static final String[] COURSE_LIST_COLUMNS = {"id", "title", "description", "icon", "color",
+            "is_premium", "required_score", "order_index"};
+    private static final String[] LESSON_LIST_COLUMNS = {"id", "cours_id", "title", "is_premium",
+            "required_score", "order_index"};
+    private static final String[] FLASHCARD_COLUMNS = {"id", "lesson_id", "front_content", "back_content",
+            "order_index"};
+    private static final String[] EXERCISE_COLUMNS = {"id", "lesson_id", "type", "question", "data",
+            "answer", "points", "order_index"};
+
+    public static final int PAGE_SIZE = 20;
+    // Items decoded before a cold screen gets its first rows
+    private static final int FIRST_PAGE_SIZE = 10;
+
+    private static ContentRepository instance;
+
+    private final ContentDatabase database;
+    private final ContentSync contentSync;
+    private final SupabaseClient supabaseClient;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Last known rows per "table:parentId", served synchronously on warm opens
+    private final Map<String, List<?>> memoryCache = new ConcurrentHashMap<>();
+    // When each lesson bundle was last fetched, to skip redundant revalidation
+    private final Map<String, Long> bundleFetchedAt = new ConcurrentHashMap<>();
+
+    public interface ContentCallback<T> {
+        /**
+         * Called on the main thread, first with cached data (if any) and again when
+         * the network returns content that differs from the cache.
+         */
+        void onData(T data, boolean fromCache);
+
+        /**
+         * Called on the main thread with the first rows of a response that is still streaming
+         * when nothing was cached; onData or onError follows once the response is complete.
+         * By default the rows are handled like any other network delivery.
+         */
+        default void onPartialData(T data) {
+            onData(data, false);
+        }
+
+        /**
+         * Called on the main thread when nothing is cached and the network failed.
+         */
+        void onError(String message);
+
+        /**
+         * Called on the main thread when cached data was delivered but could not be
+         * revalidated, e.g. during a Supabase outage; what is on screen may be out of date.
+         */
+        default void onStale(String message) {
+        }
+    }
+
+    private ContentRepository(Context context) {
+        database = ContentDatabase.getInstance(context);
+        contentSync = ContentSync.getInstance(context);
+        supabaseClient = SupabaseClient.getInstance();
+    }
+
+    public static synchronized ContentRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ContentRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * One page of courses, after the given course or from the start when it is null.
+     * See loadPage for how results are delivered.
+     */
+    public void getCoursesPage(Cours after, ContentCallback<List<Cours>> callback) {
+        loadPage(ContentDatabase.COURS, null, after, PostgrestQuery.select(COURSE_LIST_COLUMNS),
+                query -> execute(supabaseClient.getDataApi().getCourses(query.toQueryMap())),
+                callback);
+    }
+
+    public void getLessonsPage(String courseId, Lesson after, ContentCallback<List<Lesson>> callback) {
+        loadPage(ContentDatabase.LESSONS, courseId, after,
+                PostgrestQuery.select(LESSON_LIST_COLUMNS).eq("cours_id", courseId),
+                query -> execute(supabaseClient.getDataApi().getLessons(query.toQueryMap())),
+                callback);
+    }
+
+    /**
+     * Flashcards are revalidated through the lesson bundle, which also caches the
+     * lesson's exercises so the exercise screen opens without a network wait.
+     */
+    public void getFlashcards(String lessonId, ContentCallback<List<Flashcard>> callback) {
+        List<?> bundled = memoryCache.get(cacheKey(ContentDatabase.FLASHCARDS, lessonId));
+        if (bundled != null && isBundleFresh(lessonId)) {
+            // Prefetched moments ago, no need to ask again
+            callback.onData(castList(bundled), true);
+            return;
+        }
+
+        load(ContentDatabase.FLASHCARDS, lessonId, revalidator(ContentDatabase.FLASHCARDS, lessonId, firstPage -> {
+            LessonBundle bundle = firstPage != null
+                    ? streamLessonBundle(lessonId, firstPage, null)
+                    : fetchLessonBundle(lessonId);
+            store(ContentDatabase.EXERCISES, lessonId, bundle.getExercises());
+            return bundle.getFlashcards();
+        }), callback);
+    }
+
+    public void getExercises(String lessonId, ContentCallback<List<Exercise>> callback) {
+        List<?> bundled = memoryCache.get(cacheKey(ContentDatabase.EXERCISES, lessonId));
+        if (bundled != null && isBundleFresh(lessonId)) {
+            // Just arrived with the flashcards bundle, no need to ask again
+            callback.onData(castList(bundled), true);
+            return;
+        }
+
+        load(ContentDatabase.EXERCISES, lessonId, revalidator(ContentDatabase.EXERCISES, lessonId, firstPage -> {
+            LessonBundle bundle = firstPage != null
+                    ? streamLessonBundle(lessonId, null, firstPage)
+                    : fetchLessonBundle(lessonId);
+            store(ContentDatabase.FLASHCARDS, lessonId, bundle.getFlashcards());
+            return bundle.getExercises();
+        }), callback);
+    }
+
+    /**
+     * True when both halves of the lesson were fetched recently and are in memory
+     */
+    public boolean isLessonWarm(String lessonId) {
+        return isBundleFresh(lessonId)
+                && memoryCache.containsKey(cacheKey(ContentDatabase.FLASHCARDS, lessonId))
+                && memoryCache.containsKey(cacheKey(ContentDatabase.EXERCISES, lessonId));
+    }
+
+    /**
+     * Blocking fetch of a lesson bundle into the cache, for background prefetching.
+     * Failures are ignored: the screen will simply fetch on open.
+     */
+    public void prefetchLesson(String lessonId) {
+        try {
+            if (contentSync.isComplete(ContentDatabase.FLASHCARDS)
+                    && contentSync.isComplete(ContentDatabase.EXERCISES)) {
+                // Already on disk and kept current by delta sync, just warm memory
+                memoryCache.put(cacheKey(ContentDatabase.FLASHCARDS, lessonId),
+                        database.readRows(ContentDatabase.FLASHCARDS, lessonId));
+                memoryCache.put(cacheKey(ContentDatabase.EXERCISES, lessonId),
+                        database.readRows(ContentDatabase.EXERCISES, lessonId));
+                bundleFetchedAt.put(lessonId, SystemClock.elapsedRealtime());
+                return;
+            }
+            LessonBundle bundle = fetchLessonBundle(lessonId);
+            store(ContentDatabase.FLASHCARDS, lessonId, bundle.getFlashcards());
+            store(ContentDatabase.EXERCISES, lessonId, bundle.getExercises());
+        } catch (Exception e) {
+            Log.d(TAG, "Prefetch of lesson " + lessonId + " skipped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sync every content table in the background; the first run downloads the catalog once.
+     */
+    public void syncAll() {
+        executor.execute(() -> {
+            for (ContentDatabase.Table<?> table : new ContentDatabase.Table<?>[]{ContentDatabase.COURS,
+                    ContentDatabase.LESSONS, ContentDatabase.FLASHCARDS, ContentDatabase.EXERCISES}) {
+                try {
+                    syncTable(table);
+                } catch (Exception e) {
+                    Log.w(TAG, "Sync of " + table.getName() + " failed: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Revalidate from local storage after a delta sync when the table is fully synced,
+     * otherwise fall back to fetching the rows from the network.
+     */
+    private <T> Fetcher<T> revalidator(ContentDatabase.Table<T> table, String parentId,
+                                       Fetcher<T> networkFetcher) {
+        return firstPage -> {
+            if (!contentSync.isComplete(table)) {
+                return networkFetcher.fetch(firstPage);
+            }
+            syncTable(table);
+            return database.readRows(table, parentId);
+        };
+    }
+
+    private void syncTable(ContentDatabase.Table<?> table) throws IOException {
+        if (contentSync.syncTable(table, false)) {
+            // Rows may have moved or disappeared under any parent, reload from the database
+            String prefix = table.getName() + ":";
+            memoryCache.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private LessonBundle fetchLessonBundle(String lessonId) throws IOException {
+        List<LessonBundle> bundles = execute(supabaseClient.getDataApi().getLessonBundle(
+                lessonBundleQuery(lessonId).toQueryMap()));
+        bundleFetchedAt.put(lessonId, SystemClock.elapsedRealtime());
+        return bundles.isEmpty() ? new LessonBundle() : bundles.get(0);
+    }
+
+    /**
+     * Cold-open variant of fetchLessonBundle: decodes the response as it arrives and hands
+     * the first items to the screen early. Not coalesced, since a stream has a single reader.
+     */
+    private LessonBundle streamLessonBundle(String lessonId,
+                                            StreamingJsonDecoder.FirstPageListener<Flashcard> flashcardPages,
+                                            StreamingJsonDecoder.FirstPageListener<Exercise> exercisePages)
+            throws IOException {
+        Response<ResponseBody> response = supabaseClient.getRetryPolicy().execute(
+                supabaseClient.getDataApi().streamLessonBundle(lessonBundleQuery(lessonId).toQueryMap()));
+        ResponseBody body = response.body();
+        if (!response.isSuccessful() || body == null) {
+            if (body != null) {
+                body.close();
+            }
+            throw new IOException("HTTP " + response.code());
+        }
+        LessonBundle bundle = supabaseClient.getStreamingDecoder()
+                .readLessonBundle(body, FIRST_PAGE_SIZE, flashcardPages, exercisePages);
+        bundleFetchedAt.put(lessonId, SystemClock.elapsedRealtime());
+        return bundle;
+    }
+
+    /**
+     * Only the embedded rows are used, so the lesson itself contributes just its id
+     */
+    private static PostgrestQuery lessonBundleQuery(String lessonId) {
+        return PostgrestQuery.select("id")
+                .eq("id", lessonId)
+                .embed("flashcards", PostgrestQuery.select(FLASHCARD_COLUMNS).orderAsc("order_index"))
+                .embed("exercises", PostgrestQuery.select(EXERCISE_COLUMNS).orderAsc("order_index"));
+    }
+
+    private boolean isBundleFresh(String lessonId) {
+        Long fetchedAt = bundleFetchedAt.get(lessonId);
+        return fetchedAt != null && SystemClock.elapsedRealtime() - fetchedAt < BUNDLE_FRESH_MS;
+    }
+
+    /**
+     * Stale-while-revalidate: deliver cached rows, then fetch and deliver again only if changed
+     */
+    private <T> void load(ContentDatabase.Table<T> table, String parentId,
+                          Fetcher<T> fetcher, ContentCallback<List<T>> callback) {
+        String key = cacheKey(table, parentId);
+        List<T> inMemory = castList(memoryCache.get(key));
+        if (inMemory != null) {
+            callback.onData(inMemory, true);
+        }
+
+        executor.execute(() -> {
+            boolean hasCachedData = inMemory != null;
+            if (!hasCachedData) {
+                try {
+                    List<T> stored = database.readRows(table, parentId);
+                    if (!stored.isEmpty()) {
+                        memoryCache.put(key, stored);
+                        hasCachedData = true;
+                        mainHandler.post(() -> callback.onData(stored, true));
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error reading cached " + table.getName(), e);
+                }
+            }
+
+            // Early partial rows only help a screen that has nothing to show yet
+            StreamingJsonDecoder.FirstPageListener<T> firstPage = hasCachedData ? null
+                    : page -> mainHandler.post(() -> callback.onPartialData(page));
+            try {
+                List<T> fresh = fetcher.fetch(firstPage);
+                boolean changed = store(table, parentId, fresh);
+                if (changed || !hasCachedData) {
+                    mainHandler.post(() -> callback.onData(fresh, false));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error revalidating " + table.getName() + ": " + e.getMessage());
+                if (hasCachedData) {
+                    mainHandler.post(() -> callback.onStale(e.getMessage()));
+                } else {
+                    mainHandler.post(() -> callback.onError(e.getMessage()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Keyset-paged variant of load: delivers the cached page first if there is one, then
+     * always finishes with a fromCache=false delivery of the page, or onStale/onError if that failed.
+     * Fully synced tables are paged locally after a delta sync; otherwise the page is fetched
+     * and replaces the cached rows of its key range, so the cache fills up as the user scrolls.
+     */
+    private <T> void loadPage(ContentDatabase.Table<T> table, String parentId, T after,
+                              PostgrestQuery query, PageFetcher<T> fetcher, ContentCallback<List<T>> callback) {
+        executor.execute(() -> {
+            List<T> cached = null;
+            try {
+                cached = database.readPage(table, parentId, after, PAGE_SIZE);
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading cached " + table.getName(), e);
+            }
+            boolean hasCachedPage = cached != null && !cached.isEmpty();
+            if (hasCachedPage) {
+                List<T> cachedPage = cached;
+                mainHandler.post(() -> callback.onData(cachedPage, true));
+            }
+
+            try {
+                List<T> fresh;
+                if (contentSync.isComplete(table)) {
+                    syncTable(table);
+                    fresh = database.readPage(table, parentId, after, PAGE_SIZE);
+                } else {
+                    fresh = fetcher.fetch(pageQuery(query, table, after));
+                    // Also drops cached rows in this key range that were deleted on the server
+                    database.replacePage(table, parentId, after, fresh, fresh.size() < PAGE_SIZE);
+                }
+                mainHandler.post(() -> callback.onData(fresh, false));
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading " + table.getName() + " page: " + e.getMessage());
+                if (hasCachedPage) {
+                    mainHandler.post(() -> callback.onStale(e.getMessage()));
+                } else {
+                    mainHandler.post(() -> callback.onError(e.getMessage()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Narrow query to the page after the (order_index, id) of afterRow, or the first page
+     */
+    private static <T> PostgrestQuery pageQuery(PostgrestQuery query, ContentDatabase.Table<T> table, T afterRow) {
+        if (afterRow != null) {
+            query.after("order_index", String.valueOf(table.orderOf(afterRow)), table.idOf(afterRow));
+        }
+        return query.orderAsc("order_index").orderAsc("id").limit(PAGE_SIZE);
+    }
+
+    /**
+     * Write fresh rows to the database and memory.
+     *
+     * @return true if they differ from what was cached
+     */
+    private <T> boolean store(ContentDatabase.Table<T> table, String parentId, List<T> rows) {
+        memoryCache.put(cacheKey(table, parentId), rows);
+        return database.replaceRows(table, parentId, rows);
+    }
+
+    private <T> T execute(Call<T> call) throws IOException {
+        Response<T> response = supabaseClient.getSingleFlight().execute(call);
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new IOException("HTTP " + response.code());
+        }
+        return response.body();
+    }
+
+    private static String cacheKey(ContentDatabase.Table<?> table, String parentId) {
+        return table.getName() + ":" + parentId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> castList(List<?> list) {
+        return (List<T>) list;
+    }
+
+    private interface PageFetcher<E> {
+        List<E> fetch(PostgrestQuery page) throws IOException;
+    }
+
+    private interface Fetcher<E> {
+        /**
+         * @param firstPage receives the first decoded rows when the fetch can stream, or null
+         */
+        List<E> fetch(StreamingJsonDecoder.FirstPageListener<E> firstPage) throws IOException;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.devroad.services;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.devroad.Database.ContentDatabase;
+import com.example.devroad.Database.ContentDatabase.SyncState;
+import com.example.devroad.Models.ContentDeletion;
+import com.example.devroad.Supabase.PostgrestQuery;
+import com.example.devroad.Supabase.SupabaseClient;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * ContentSync - Incremental sync of the course catalog into ContentDatabase.
+ * Each table keeps a high-water mark on (updated_at, id); a sync only asks PostgREST for
+ * rows from a short overlap window behind it onwards, then applies tombstones from
+ * content_deletions the same way. The first sync pages through
+ * the whole table once and resumes from the last page if it is interrupted.
+ */
+public class ContentSync {
+    private static final String TAG = "ContentSync";
+    private static final int PAGE_SIZE = 500;
+    // Screens revalidate on every open, no need to ask more often than this
+    private static final long MIN_SYNC_INTERVAL_MS = 60 * 1000;
+    // How far behind its mark each sync starts again, to catch rows committed out of order
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+    private static final Pattern TIMESTAMPTZ =
+            Pattern.compile("(\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}:\\d{2})(?:\\.\\d+)?(Z|[+-]\\d{2}(?::?\\d{2})?)?");
+
+    private static ContentSync instance;
+
+    private final ContentDatabase database;
+    private final SupabaseClient supabaseClient;
+    private final Map<String, ChangeQuery<?>> changeQueries = new HashMap<>();
+    private final Map<String, List<String>> syncedColumns = new HashMap<>();
+    private final Map<String, Long> lastSyncedAt = new ConcurrentHashMap<>();
+
+    private ContentSync(Context context) {
+        database = ContentDatabase.getInstance(context);
+        supabaseClient = SupabaseClient.getInstance();
+
+        // Every column a screen reads from the local copy, plus updated_at for the cursor
+        SupabaseClient.SupabaseDataApi api = supabaseClient.getDataApi();
+        register(ContentDatabase.COURS, api::getCourses, "id", "title", "description", "icon",
+                "color", "is_premium", "required_score", "order_index", "updated_at");
+        register(ContentDatabase.LESSONS, api::getLessons, "id", "cours_id", "title",
+                "is_premium", "required_score", "order_index", "updated_at");
+        register(ContentDatabase.FLASHCARDS, api::getFlashcards, "id", "lesson_id",
+                "front_content", "back_content", "order_index", "updated_at");
+        register(ContentDatabase.EXERCISES, api::getExercises, "id", "lesson_id", "type",
+                "question", "data", "answer", "points", "order_index", "updated_at");
+    }
+
+    private <T> void register(ContentDatabase.Table<T> table, ChangeQuery<T> query, String... columns) {
+        changeQueries.put(table.getName(), query);
+        syncedColumns.put(table.getName(), Arrays.asList(columns));
+    }
+
+    public static synchronized ContentSync getInstance(Context context) {
+        if (instance == null) {
+            instance = new ContentSync(context);
+        }
+        return instance;
+    }
+
+    /**
+     * True once the table has been fully synced, so local rows can be trusted
+     * and only deltas need to be fetched.
+     */
+    public boolean isComplete(ContentDatabase.Table<?> table) {
+        return database.getSyncState(table).complete;
+    }
+
+    /**
+     * Blocking: bring one table up to date with the server.
+     *
+     * @param force ignore MIN_SYNC_INTERVAL_MS
+     * @return true if any local row was inserted, updated or deleted
+     */
+    public <T> boolean syncTable(ContentDatabase.Table<T> table, boolean force) throws IOException {
+        // One sync per table at a time (descriptors are static singletons, so they double as locks)
+        synchronized (table) {
+            Long syncedAt = lastSyncedAt.get(table.getName());
+            if (!force && syncedAt != null
+                    && SystemClock.elapsedRealtime() - syncedAt < MIN_SYNC_INTERVAL_MS) {
+                return false;
+            }
+
+            SyncState state = database.getSyncState(table);
+            boolean changed = pullChanges(table, state);
+            changed |= applyDeletions(table, state);
+
+            lastSyncedAt.put(table.getName(), SystemClock.elapsedRealtime());
+            return changed;
+        }
+    }
+
+    private <T> boolean pullChanges(ContentDatabase.Table<T> table, SyncState state) throws IOException {
+        ChangeQuery<T> query = changeQueryFor(table);
+        List<String> columns = syncedColumns.get(table.getName());
+        // Start a little behind the mark: upserts are idempotent, and a row whose transaction
+        // committed late with an earlier updated_at is still picked up
+        String since = rewind(state.updatedAt);
+        String cursorAt = since == null ? state.updatedAt : null;
+        String cursorId = state.lastId;
+        int changed = 0;
+        while (true) {
+            List<T> page = execute(query.changedAfter(PostgrestQuery.select(columns)
+                    .gte("updated_at", cursorAt == null ? since : null)
+                    .after("updated_at", cursorAt, cursorId)
+                    .orderAsc("updated_at")
+                    .orderAsc("id")
+                    .limit(PAGE_SIZE)
+                    .toQueryMap()));
+            if (!page.isEmpty()) {
+                changed += database.upsertRows(table, page);
+                T last = page.get(page.size() - 1);
+                cursorAt = table.updatedAtOf(last);
+                cursorId = table.idOf(last);
+                // The mark only moves forward, re-read rows from the overlap sort before it
+                if (isAfter(cursorAt, cursorId, state.updatedAt, state.lastId)) {
+                    state.updatedAt = cursorAt;
+                    state.lastId = cursorId;
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                state.complete = true;
+            }
+            // Persist per page so an interrupted first sync resumes where it stopped
+            database.putSyncState(table, state);
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        if (changed > 0) {
+            Log.d(TAG, table.getName() + ": " + changed + " rows changed, synced up to " + state.updatedAt);
+        }
+        return changed > 0;
+    }
+
+    private boolean applyDeletions(ContentDatabase.Table<?> table, SyncState state) throws IOException {
+        // Same overlap as for rows, tombstones may commit out of order too; deletes are idempotent
+        String since = rewind(state.deletedAt);
+        if (since == null) {
+            since = state.deletedAt;
+        }
+        String cursorAt = null;
+        String cursorId = null;
+        int deleted = 0;
+        while (true) {
+            List<ContentDeletion> deletions = execute(supabaseClient.getDataApi().getContentDeletions(
+                    PostgrestQuery.select("row_id", "deleted_at")
+                            .eq("table_name", table.getName())
+                            .gte("deleted_at", cursorAt == null ? since : null)
+                            .after("deleted_at", cursorAt, "row_id", cursorId)
+                            .orderAsc("deleted_at")
+                            .orderAsc("row_id")
+                            .limit(PAGE_SIZE)
+                            .toQueryMap()));
+            if (!deletions.isEmpty()) {
+                List<String> ids = new ArrayList<>(deletions.size());
+                for (ContentDeletion deletion : deletions) {
+                    ids.add(deletion.getRowId());
+                }
+                // Tombstones from the overlap find nothing left to delete, so they are not a change
+                deleted += database.deleteRows(table, ids);
+
+                ContentDeletion last = deletions.get(deletions.size() - 1);
+                cursorAt = last.getDeletedAt();
+                cursorId = last.getRowId();
+                if (state.deletedAt == null || cursorAt.compareTo(state.deletedAt) > 0) {
+                    state.deletedAt = cursorAt;
+                }
+                database.putSyncState(table, state);
+            }
+            if (deletions.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        return deleted > 0;
+    }
+
+    /**
+     * The mark moved back by SYNC_OVERLAP_SECONDS, as a UTC timestamp PostgREST accepts;
+     * null if there is no mark yet or it is not in PostgREST's timestamptz format
+     */
+    private static String rewind(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        Matcher matcher = TIMESTAMPTZ.matcher(timestamp);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String offset = matcher.group(2);
+        SimpleDateFormat parser = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        parser.setTimeZone(TimeZone.getTimeZone(offset == null || offset.equals("Z") ? "UTC" : "GMT" + offset));
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            // Fractional seconds are dropped, which only widens the window
+            Date mark = parser.parse(matcher.group(1).replace('T', ' '));
+            return formatter.format(new Date(mark.getTime() - TimeUnit.SECONDS.toMillis(SYNC_OVERLAP_SECONDS)));
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAfter(String updatedAt, String id, String markUpdatedAt, String markId) {
+        if (markUpdatedAt == null) {
+            return true;
+        }
+        int order = updatedAt.compareTo(markUpdatedAt);
+        return order > 0 || (order == 0 && markId != null && id.compareTo(markId) > 0);
+    }
+
+    private <T> T execute(Call<T> call) throws IOException {
+        Response<T> response = supabaseClient.getRetryPolicy().execute(call);
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new IOException("HTTP " + response.code());
+        }
+        return response.body();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ChangeQuery<T> changeQueryFor(ContentDatabase.Table<T> table) {
+        return (ChangeQuery<T>) changeQueries.get(table.getName());
+    }
+
+    private interface ChangeQuery<T> {
+        Call<List<T>> changedAfter(Map<String, String> query);
+    }
+}
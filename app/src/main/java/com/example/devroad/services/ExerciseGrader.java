@@ -0,0 +1,69 @@
+package com.example.devroad.services;
+
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.ExercisePayload;
+
+import java.util.List;
+
+/**
+ * ExerciseGrader - Decides whether an answer to an exercise is correct. Plain Java with no
+ * view state: ExerciseActivity reads what the user picked off the screen and passes it in,
+ * so the checks can be unit tested and benchmarked on the JVM.
+ */
+public final class ExerciseGrader {
+
+    private ExerciseGrader() {
+    }
+
+    /**
+     * @param response what the user put in, by exercise type:
+     *                 multiple_choice - the selected option, or an empty list if none;
+     *                 drag_drop - the item dropped on each target, null where nothing was dropped;
+     *                 fill_blanks - the option selected for each blank, null where none was;
+     *                 arrange_code - the lines in the order they are shown
+     */
+    public static boolean isCorrect(Exercise exercise, List<String> response) {
+        if (exercise.getType() == null) {
+            return false;
+        }
+        switch (exercise.getType()) {
+            case ExercisePayload.TYPE_MULTIPLE_CHOICE:
+                return response.size() == 1 && response.get(0).equals(exercise.getAnswer());
+            case ExercisePayload.TYPE_DRAG_DROP:
+                return isDragDropCorrect((ExercisePayload.DragDrop) exercise.getPayload(), response);
+            case ExercisePayload.TYPE_FILL_BLANKS:
+                // Simplified: the selections are not compared yet
+                return "correct".equals(exercise.getAnswer());
+            case ExercisePayload.TYPE_ARRANGE_CODE:
+                return isArrangeCodeCorrect((ExercisePayload.ArrangeCode) exercise.getPayload(), response);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDragDropCorrect(ExercisePayload.DragDrop payload, List<String> dropped) {
+        // Simple check: every target has had an item dropped on it
+        if (dropped.size() != payload.getTargets().size()) {
+            return false;
+        }
+        for (int i = 0; i < dropped.size(); i++) {
+            if (dropped.get(i) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isArrangeCodeCorrect(ExercisePayload.ArrangeCode payload, List<String> shown) {
+        List<String> lines = payload.getLines();
+        if (shown.size() != lines.size()) {
+            return false;
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            if (!lines.get(i).equals(shown.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.devroad.services;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import com.example.devroad.Models.Lesson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LessonPrefetcher - Warms the flashcards and exercises of the next lessons in a course
+ * while the lessons screen is idle, so opening one of them needs no network wait.
+ * Owned by a single screen: schedule() from the main thread, cancel() when leaving.
+ * Rescheduling as pages arrive never interrupts a prefetch that has started; it only drops
+ * queued ones that are no longer among the next lessons.
+ */
+public class LessonPrefetcher {
+    private static final int MAX_CONCURRENT_PREFETCHES = 2;
+
+    private final ContentRepository repository;
+    private final int lookahead;
+    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_PREFETCHES);
+    // Submitted prefetches by lesson id, queued or running
+    private final Map<String, Future<?>> pending = new HashMap<>();
+    private MessageQueue.IdleHandler idleHandler;
+
+    /**
+     * @param lookahead how many upcoming lessons to warm
+     */
+    public LessonPrefetcher(ContentRepository repository, int lookahead) {
+        this.repository = repository;
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Prefetch the first lessons of the list that the user can open and that are not
+     * cached yet. Work starts once the main thread has nothing else to do.
+     */
+    public void schedule(List<Lesson> lessons, int userScore) {
+        removeIdleHandler();
+
+        List<String> targets = new ArrayList<>();
+        for (Lesson lesson : lessons) {
+            if (targets.size() >= lookahead) {
+                break;
+            }
+            boolean locked = lesson.isPremium() && userScore < lesson.getRequiredScore();
+            if (!locked && !repository.isLessonWarm(lesson.getId())) {
+                targets.add(lesson.getId());
+            }
+        }
+        dropQueuedExcept(targets);
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        idleHandler = () -> {
+            idleHandler = null;
+            if (!executor.isShutdown()) {
+                for (String lessonId : targets) {
+                    Future<?> current = pending.get(lessonId);
+                    if (current == null || current.isDone()) {
+                        pending.put(lessonId, executor.submit(() -> repository.prefetchLesson(lessonId)));
+                    }
+                }
+            }
+            return false; // one-shot
+        };
+        Looper.myQueue().addIdleHandler(idleHandler);
+    }
+
+    /**
+     * Stop all prefetching; in-flight requests are interrupted.
+     */
+    public void cancel() {
+        removeIdleHandler();
+        for (Future<?> future : pending.values()) {
+            future.cancel(true);
+        }
+        pending.clear();
+        executor.shutdownNow();
+    }
+
+    private void removeIdleHandler() {
+        if (idleHandler != null) {
+            Looper.myQueue().removeIdleHandler(idleHandler);
+            idleHandler = null;
+        }
+    }
+
+    /**
+     * Forget finished prefetches and keep queued ones for other lessons from starting.
+     * cancel(false) leaves a running prefetch to complete, its requests are already sent.
+     */
+    private void dropQueuedExcept(List<String> targets) {
+        Iterator<Map.Entry<String, Future<?>>> entries = pending.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Future<?>> entry = entries.next();
+            if (entry.getValue().isDone()) {
+                entries.remove();
+            } else if (!targets.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                entries.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.devroad.services;
+
+import android.Manifest;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.devroad.Supabase.SupabaseClient;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * NetworkStatsReceiver - Debug-build API for the per-route network histograms.
+ * From a connected machine:
+ *   adb shell am broadcast -a com.example.devroad.DUMP_NETWORK_STATS
+ * prints the JSON as the broadcast's result data and rewrites the dump file, which can then be
+ * fetched with adb pull /sdcard/Android/data/com.example.devroad/files/network_stats.json
+ * Only senders holding android.permission.DUMP get through: the adb shell has it, other apps
+ * on the device cannot.
+ */
+public class NetworkStatsReceiver extends BroadcastReceiver {
+    private static final String TAG = "NetworkStats";
+    public static final String ACTION_DUMP = "com.example.devroad.DUMP_NETWORK_STATS";
+    private static final String DUMP_FILE = "network_stats.json";
+
+    /**
+     * Listen for ACTION_DUMP; only call this in debug builds
+     */
+    public static void register(Context context) {
+        // Exported so adb can reach it (not-exported receivers only hear their own app),
+        // but guarded by a permission no ordinary app can hold
+        ContextCompat.registerReceiver(context.getApplicationContext(), new NetworkStatsReceiver(),
+                new IntentFilter(ACTION_DUMP), Manifest.permission.DUMP, null,
+                ContextCompat.RECEIVER_EXPORTED);
+    }
+
+    /**
+     * Write the histograms to the dump file in the background
+     */
+    public static void dumpAsync(Context context) {
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> dump(appContext), "network-stats-dump").start();
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        setResultData(SupabaseClient.getInstance().getConnectionStats().toJson().toString());
+        dumpAsync(context);
+    }
+
+    private static void dump(Context context) {
+        // App-specific external storage, so adb can pull it without run-as
+        File directory = context.getExternalFilesDir(null);
+        if (directory == null) {
+            directory = context.getFilesDir();
+        }
+        File file = new File(directory, DUMP_FILE);
+        try {
+            SupabaseClient.getInstance().getConnectionStats().dumpTo(file);
+            Log.i(TAG, "Network stats written to " + file);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write network stats: " + e.getMessage());
+        }
+    }
+}
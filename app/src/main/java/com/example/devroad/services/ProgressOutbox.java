@@ -0,0 +1,330 @@
+package com.example.devroad.services;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.util.Log;
+
+import com.example.devroad.Database.OutboxDatabase;
+import com.example.devroad.Database.OutboxDatabase.Mutation;
+import com.example.devroad.Models.UserProgress;
+import com.example.devroad.SessionManager;
+import com.example.devroad.Supabase.ModelTypeAdapters;
+import com.example.devroad.Supabase.SupabaseClient;
+import com.example.devroad.Supabase.SupabaseTasks;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.HttpException;
+
+/**
+ * ProgressOutbox - Write-behind queue for lesson progress and score updates.
+ * Writes are persisted in OutboxDatabase first and flushed to Supabase in the background,
+ * with exponential backoff on failure and an immediate retry when connectivity returns.
+ * Finishing a lesson therefore never waits on, or loses, a network write.
+ * Points are sent as increments, each with its own idempotency key, and the server's total
+ * replaces the local score, so devices never overwrite each other's points.
+ */
+public class ProgressOutbox {
+    private static final String TAG = "ProgressOutbox";
+
+    private static final String KIND_PROGRESS = "progress";
+    // Replaces "score", which PATCHed an absolute total; leftovers of that kind are dropped
+    private static final String KIND_SCORE_INCREMENT = "score_increment";
+
+    private static final long BASE_BACKOFF_MS = 2_000;
+    private static final long MAX_BACKOFF_MS = 10 * 60_000;
+    private static final long SEND_TIMEOUT_SECONDS = 60;
+
+    private static ProgressOutbox instance;
+
+    private final Context context;
+    private final OutboxDatabase database;
+    private final SupabaseClient supabaseClient;
+    private final Gson gson = ModelTypeAdapters.getGson();
+    // Single thread: enqueues and flushes never race each other
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean started;
+
+    private enum Outcome { DONE, RETRY, DROP }
+
+    private ProgressOutbox(Context context) {
+        this.context = context.getApplicationContext();
+        this.database = OutboxDatabase.getInstance(context);
+        this.supabaseClient = SupabaseClient.getInstance();
+    }
+
+    public static synchronized ProgressOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new ProgressOutbox(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Flush whatever is left from previous runs and retry whenever the network comes back
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager != null) {
+            connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    scheduler.execute(() -> {
+                        database.resetBackoff();
+                        flush();
+                    });
+                }
+            });
+        }
+        scheduleFlush(0);
+    }
+
+    /**
+     * Record a finished lesson. Several completions of the same lesson coalesce into
+     * one progress row keeping the best score; each completion adds its points once.
+     */
+    public void enqueueLessonCompletion(String userId, String lessonId, int lessonScore) {
+        // Created now, not at send time, so every retry of this completion reuses it
+        String idempotencyKey = UUID.randomUUID().toString();
+        scheduler.execute(() -> {
+            long now = System.currentTimeMillis();
+
+            String progressKey = KIND_PROGRESS + ":" + userId + ":" + lessonId;
+            int bestScore = lessonScore;
+            Mutation pending = database.get(progressKey);
+            if (pending != null) {
+                UserProgress queued = gson.fromJson(pending.payload, UserProgress.class);
+                bestScore = Math.max(bestScore, queued.getScore());
+            }
+
+            UserProgress progress = new UserProgress();
+            progress.setUserId(userId);
+            progress.setLessonId(lessonId);
+            progress.setCompleted(true);
+            progress.setScore(bestScore);
+            database.put(new Mutation(progressKey, KIND_PROGRESS, gson.toJson(progress), now));
+
+            if (lessonScore > 0) {
+                ScoreIncrement increment = new ScoreIncrement(userId, idempotencyKey, lessonScore);
+                database.put(new Mutation(KIND_SCORE_INCREMENT + ":" + idempotencyKey,
+                        KIND_SCORE_INCREMENT, increment.toJson(), now));
+            }
+
+            flush();
+        });
+    }
+
+    private synchronized void scheduleFlush(long delayMs) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = scheduler.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send every due mutation: all progress rows in one batched upsert, alongside the score updates.
+     * A batch the server rejects outright is retried row by row before anything is dropped.
+     */
+    private void flush() {
+        try {
+            List<Mutation> due = database.getDue(System.currentTimeMillis());
+            List<Mutation> progressMutations = new ArrayList<>();
+            List<Mutation> scoreMutations = new ArrayList<>();
+            for (Mutation mutation : due) {
+                if (KIND_PROGRESS.equals(mutation.kind)) {
+                    progressMutations.add(mutation);
+                } else if (KIND_SCORE_INCREMENT.equals(mutation.kind)) {
+                    scoreMutations.add(mutation);
+                } else {
+                    database.delete(mutation);
+                }
+            }
+
+            // The batched upsert and the score updates are independent: send them all at once,
+            // then record the outcomes here on the outbox thread
+            CompletableFuture<Outcome> progressSent = null;
+            List<UserProgress> rows = new ArrayList<>();
+            if (!progressMutations.isEmpty()) {
+                for (Mutation mutation : progressMutations) {
+                    rows.add(gson.fromJson(mutation.payload, UserProgress.class));
+                }
+                progressSent = send(supabaseClient.getDataApi().upsertProgress(rows));
+            }
+            List<ScoreIncrement> increments = new ArrayList<>();
+            List<CompletableFuture<Integer>> totals = new ArrayList<>();
+            List<CompletableFuture<Outcome>> scoresSent = new ArrayList<>();
+            for (Mutation mutation : scoreMutations) {
+                ScoreIncrement increment = ScoreIncrement.fromJson(mutation.payload);
+                CompletableFuture<Integer> total = SupabaseTasks.call(supabaseClient.getDataApi()
+                        .incrementUserScore(new SupabaseClient.ScoreIncrementRequest(
+                                increment.userId, increment.idempotencyKey, increment.delta)));
+                increments.add(increment);
+                totals.add(total);
+                scoresSent.add(send(total));
+            }
+
+            if (progressSent != null) {
+                Outcome outcome = progressSent.join();
+                if (outcome == Outcome.DROP && rows.size() > 1) {
+                    // One rejected row (e.g. a lesson deleted on the server) fails the whole
+                    // batch: send the rows one by one so only that row is dropped
+                    sendOneByOne(progressMutations, rows);
+                } else {
+                    for (Mutation mutation : progressMutations) {
+                        apply(mutation, outcome);
+                    }
+                }
+            }
+            String latestUserId = null;
+            int latestTotal = -1;
+            for (int i = 0; i < scoreMutations.size(); i++) {
+                Outcome outcome = scoresSent.get(i).join();
+                apply(scoreMutations.get(i), outcome);
+                // Points only ever go up, so the largest total is the most recent one
+                Integer total = outcome == Outcome.DONE ? totals.get(i).getNow(null) : null;
+                if (total != null && total > latestTotal) {
+                    latestUserId = increments.get(i).userId;
+                    latestTotal = total;
+                }
+            }
+            if (latestUserId != null) {
+                updateLocalScore(latestUserId, latestTotal);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Outbox flush failed", e);
+            scheduleFlush(BASE_BACKOFF_MS);
+            return;
+        }
+
+        long nextAttemptAt = database.getNextAttemptAt();
+        if (nextAttemptAt >= 0) {
+            scheduleFlush(Math.max(0, nextAttemptAt - System.currentTimeMillis()));
+        }
+    }
+
+    private void sendOneByOne(List<Mutation> mutations, List<UserProgress> rows) {
+        List<CompletableFuture<Outcome>> sent = new ArrayList<>();
+        for (UserProgress row : rows) {
+            sent.add(send(supabaseClient.getDataApi().upsertProgress(Collections.singletonList(row))));
+        }
+        for (int i = 0; i < mutations.size(); i++) {
+            apply(mutations.get(i), sent.get(i).join());
+        }
+    }
+
+    /**
+     * Start the write; the future never fails, errors become RETRY or DROP
+     */
+    private CompletableFuture<Outcome> send(Call<?> call) {
+        return send(SupabaseTasks.call(call));
+    }
+
+    private CompletableFuture<Outcome> send(CompletableFuture<?> call) {
+        return SupabaseTasks.withTimeout(call, SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .handle((body, error) -> outcomeOf(error));
+    }
+
+    /**
+     * Replace the cached score with the server's total plus whatever this device has not sent yet
+     */
+    private void updateLocalScore(String userId, int serverTotal) {
+        SessionManager sessionManager = new SessionManager(context);
+        if (!userId.equals(sessionManager.getUserId())) {
+            // Signed out or switched accounts since the lesson was finished
+            return;
+        }
+        int unsent = 0;
+        for (Mutation mutation : database.getByKind(KIND_SCORE_INCREMENT)) {
+            ScoreIncrement increment = ScoreIncrement.fromJson(mutation.payload);
+            if (userId.equals(increment.userId)) {
+                unsent += increment.delta;
+            }
+        }
+        sessionManager.updateScore(serverTotal + unsent);
+    }
+
+    private static Outcome outcomeOf(Throwable error) {
+        if (error == null) {
+            return Outcome.DONE;
+        }
+        Throwable cause = SupabaseTasks.unwrap(error);
+        if (cause instanceof HttpException) {
+            int code = ((HttpException) cause).code();
+            if (code == 401 || code == 408 || code == 429 || code >= 500) {
+                return Outcome.RETRY;
+            }
+            // Any other client error will fail the same way forever
+            Log.e(TAG, "Dropping rejected write: HTTP " + code);
+            return Outcome.DROP;
+        }
+        Log.w(TAG, "Network unavailable, will retry: " + cause.getMessage());
+        return Outcome.RETRY;
+    }
+
+    private void apply(Mutation mutation, Outcome outcome) {
+        if (outcome == Outcome.RETRY) {
+            database.markFailed(mutation, System.currentTimeMillis() + backoffMs(mutation.getAttempts()));
+        } else {
+            database.delete(mutation);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter, capped at MAX_BACKOFF_MS
+     */
+    private static long backoffMs(int attempts) {
+        long exponential = BASE_BACKOFF_MS << Math.min(attempts, 16);
+        long capped = Math.min(MAX_BACKOFF_MS, exponential);
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    /**
+     * Written by hand so the stored format does not depend on field names R8 may rename
+     */
+    private static class ScoreIncrement {
+        final String userId;
+        final String idempotencyKey;
+        final int delta;
+
+        ScoreIncrement(String userId, String idempotencyKey, int delta) {
+            this.userId = userId;
+            this.idempotencyKey = idempotencyKey;
+            this.delta = delta;
+        }
+
+        String toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("userId", userId);
+            json.addProperty("idempotencyKey", idempotencyKey);
+            json.addProperty("delta", delta);
+            return json.toString();
+        }
+
+        static ScoreIncrement fromJson(String payload) {
+            JsonObject json = JsonParser.parseString(payload).getAsJsonObject();
+            return new ScoreIncrement(json.get("userId").getAsString(),
+                    json.get("idempotencyKey").getAsString(), json.get("delta").getAsInt());
+        }
+    }
+}
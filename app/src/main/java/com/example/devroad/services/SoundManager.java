@@ -117,7 +117,7 @@ public class SoundManager {
     public void playCorrectSound() {
         if (areSoundEffectsEnabled && correctSoundId != -1) {
             soundPool.play(correctSoundId, 1.0f, 1.0f, 1, 0, 1.0f);
-            Log.d(TAG, "Playing correct answer sound");
+            AppLog.d(TAG, "Playing correct answer sound");
         }
     }
 
@@ -127,7 +127,7 @@ public class SoundManager {
     public void playWrongSound() {
         if (areSoundEffectsEnabled && wrongSoundId != -1) {
             soundPool.play(wrongSoundId, 1.0f, 1.0f, 1, 0, 1.0f);
-            Log.d(TAG, "Playing wrong answer sound");
+            AppLog.d(TAG, "Playing wrong answer sound");
         }
     }
 
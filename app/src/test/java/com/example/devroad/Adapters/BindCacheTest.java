@@ -0,0 +1,68 @@
+package com.example.devroad.Adapters;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * BindCache behind CoursAdapter and LessonAdapter: once the values of a screen of rows have
+ * been seen, binding them again must not allocate. Counted with the JVM's per-thread
+ * allocation counter.
+ */
+public class BindCacheTest {
+    private static final int BINDS = 10_000;
+
+    private static final String[] COLORS = {"#4CAF50", "#2196F3", "#FF9800", "not a colour", ""};
+    private static final int[] REQUIRED_SCORES = {0, 50, 100, 250, 1000, 5000};
+
+    @Test
+    public void valuesAreBuiltOnceAndReused() {
+        BindCache cache = new BindCache();
+
+        assertEquals("🔒 250 pts", cache.premiumLabel(250));
+        assertSame(cache.premiumLabel(250), cache.premiumLabel(250));
+        assertEquals("17", cache.number(17));
+        assertSame(cache.number(17), cache.number(17));
+        assertNull(cache.color(""));
+        assertNull(cache.color(null));
+    }
+
+    @Test
+    public void steadyStateBindsAllocateNothing() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        BindCache cache = new BindCache();
+        Runnable bindRows = () -> {
+            // What CoursViewHolder.bind and LessonViewHolder.bind ask for, row after row
+            for (int i = 0; i < BINDS; i++) {
+                cache.color(COLORS[i % COLORS.length]);
+                cache.premiumLabel(REQUIRED_SCORES[i % REQUIRED_SCORES.length]);
+                cache.number(i % 60 + 1);
+            }
+        };
+        Runnable nothing = () -> {
+        };
+
+        // First pass fills the cache, like the first screen of rows
+        bindRows.run();
+        long overhead = allocatedBytes(threads, nothing);
+        long allocated = allocatedBytes(threads, bindRows);
+
+        assertEquals("bytes allocated by " + BINDS + " steady-state binds", 0, allocated - overhead);
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads, Runnable work) {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        work.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
@@ -0,0 +1,590 @@
+package com.example.devroad.Supabase;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * FakeSupabaseServer - Local stand-in for Supabase's auth/v1 and rest/v1 on MockWebServer.
+ * Serves a SyntheticCatalog through the subset of PostgREST the app uses: select with
+ * embedded relations, eq/gt/gte filters, the (column, id) keyset "or" filter, order and limit.
+ * Catalog reads carry the catalog-wide ETag of the content_etags migration and are answered with
+ * 304 while If-None-Match still matches; touchTable() stands in for a write to a table.
+ * Also issues and checks access tokens, so expireAccessTokens() exercises the refresh path,
+ * and can add latency or fail requests to exercise retries and the circuit breaker.
+ */
+final class FakeSupabaseServer extends Dispatcher implements Closeable {
+    private static final Pattern KEYSET = Pattern.compile(
+            "\\((\\w+)\\.gt\\.\"?([^,\"]*)\"?,and\\(\\1\\.eq\\.\"?[^,\"]*\"?,id\\.gt\\.([^)]*)\\)\\)");
+
+    private final MockWebServer server = new MockWebServer();
+    private final SyntheticCatalog catalog;
+
+    private final Map<String, String> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> refreshTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> userIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<String, JsonObject> users = new ConcurrentHashMap<>();
+    private final Map<String, JsonObject> progress = new ConcurrentHashMap<>();
+    private final Set<String> appliedIncrements = ConcurrentHashMap.newKeySet();
+    // Bumped by any catalog write, like the versions behind the migration's ETag
+    private final AtomicInteger catalogVersion = new AtomicInteger();
+    private final AtomicInteger tokenCounter = new AtomicInteger();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double failureRate;
+
+    FakeSupabaseServer(SyntheticCatalog catalog) throws IOException {
+        this.catalog = catalog;
+        server.setDispatcher(this);
+        server.start();
+    }
+
+    String baseUrl() {
+        return server.url("/").toString();
+    }
+
+    /**
+     * Delay every response's headers by latencyMs plus up to jitterMs
+     */
+    void setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+    }
+
+    /**
+     * Answer this fraction of rest/v1 requests with 503
+     */
+    void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Answer the next count rest/v1 requests with 503
+     */
+    void failNextRequests(int count) {
+        failuresToInject.set(count);
+    }
+
+    /**
+     * Invalidate every access token handed out so far; refresh tokens stay valid
+     */
+    void expireAccessTokens() {
+        accessTokens.clear();
+    }
+
+    /**
+     * A write to a catalog table: the ETag changes, so cached copies stop matching
+     */
+    void touchTable(String table) {
+        catalogVersion.incrementAndGet();
+    }
+
+    int requestCount() {
+        return server.getRequestCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        MockResponse response;
+        try {
+            response = route(request);
+        } catch (RuntimeException e) {
+            response = error(400, "PGRST100", String.valueOf(e.getMessage()));
+        }
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            response.setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private MockResponse route(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        String path = url.encodedPath();
+        String method = request.getMethod();
+
+        if (path.startsWith("/auth/v1/")) {
+            return auth(request, url, path.substring("/auth/v1/".length()));
+        }
+        if (!path.startsWith("/rest/v1/")) {
+            return error(404, "PGRST000", "Unknown path " + path);
+        }
+        if (request.getHeader("apikey") == null) {
+            return error(401, "PGRST000", "No API key found in request");
+        }
+        String userId = null;
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null) {
+            userId = accessTokens.get(authorization.replaceFirst("^Bearer ", ""));
+            if (userId == null) {
+                return error(401, "PGRST301", "JWT expired");
+            }
+        }
+        if (shouldFail()) {
+            return error(503, "PGRST000", "Service unavailable");
+        }
+
+        String resource = path.substring("/rest/v1/".length());
+        switch (method + " " + resource) {
+            case "GET users":
+                return ok(project(users.get(eqValue(url, "id")), url.queryParameter("select")));
+            case "GET user_progress":
+                return ok(userProgress(eqValue(url, "user_id"), url.queryParameter("select")));
+            case "POST user_progress":
+                return upsertProgress(readJson(request).getAsJsonArray());
+            case "POST rpc/increment_user_score":
+                return incrementScore(userId, readJson(request).getAsJsonObject());
+            case "GET content_deletions":
+                return ok(new JsonArray());
+            default:
+                SyntheticCatalog.VirtualTable table = catalog.table(resource);
+                if (table == null || !"GET".equals(method)) {
+                    return error(404, "PGRST205", "Could not find the table public." + resource);
+                }
+                String etag = "W/\"catalog-" + catalogVersion.get() + "\"";
+                if (etag.equals(request.getHeader("If-None-Match"))) {
+                    return new MockResponse().setResponseCode(304).setHeader("ETag", etag);
+                }
+                return ok(query(table, url, "")).setHeader("ETag", etag);
+        }
+    }
+
+    private boolean shouldFail() {
+        if (failuresToInject.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+            return true;
+        }
+        double rate = failureRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    // --- auth/v1 ---
+
+    private MockResponse auth(RecordedRequest request, HttpUrl url, String endpoint) {
+        switch (request.getMethod() + " " + endpoint) {
+            case "GET health":
+                return ok(new JsonObject());
+            case "POST signup": {
+                JsonObject body = readJson(request).getAsJsonObject();
+                String email = body.get("email").getAsString();
+                if (userIdsByEmail.containsKey(email)) {
+                    return authError("User already registered");
+                }
+                return session(createUser(email));
+            }
+            case "POST token": {
+                JsonObject body = readJson(request).getAsJsonObject();
+                if ("refresh_token".equals(url.queryParameter("grant_type"))) {
+                    String userId = refreshTokens.remove(body.get("refresh_token").getAsString());
+                    return userId == null ? authError("Invalid Refresh Token") : session(userId);
+                }
+                // Any password works; unknown emails are signed up on the fly
+                String email = body.get("email").getAsString();
+                String userId = userIdsByEmail.get(email);
+                return session(userId != null ? userId : createUser(email));
+            }
+            default:
+                return error(404, "PGRST000", "Unknown auth endpoint " + endpoint);
+        }
+    }
+
+    private String createUser(String email) {
+        String userId = "u-" + userIdsByEmail.size() + "-" + Math.abs(email.hashCode());
+        JsonObject user = new JsonObject();
+        user.addProperty("id", userId);
+        user.addProperty("username", email.substring(0, email.indexOf('@')));
+        user.addProperty("email", email);
+        user.addProperty("score", 0);
+        users.put(userId, user);
+        userIdsByEmail.put(email, userId);
+        return userId;
+    }
+
+    private MockResponse session(String userId) {
+        String accessToken = "access-" + tokenCounter.incrementAndGet();
+        String refreshToken = "refresh-" + tokenCounter.incrementAndGet();
+        accessTokens.put(accessToken, userId);
+        refreshTokens.put(refreshToken, userId);
+
+        JsonObject user = new JsonObject();
+        user.addProperty("id", userId);
+        user.addProperty("email", users.get(userId).get("email").getAsString());
+        JsonObject body = new JsonObject();
+        body.addProperty("access_token", accessToken);
+        body.addProperty("refresh_token", refreshToken);
+        body.add("user", user);
+        return ok(body);
+    }
+
+    private static MockResponse authError(String description) {
+        JsonObject body = new JsonObject();
+        body.addProperty("error", "invalid_grant");
+        body.addProperty("error_description", description);
+        return json(400, body);
+    }
+
+    // --- rest/v1 user tables, kept in memory ---
+
+    private JsonArray userProgress(String userId, String select) {
+        JsonArray rows = new JsonArray();
+        for (JsonObject row : progress.values()) {
+            if (row.get("user_id").getAsString().equals(userId)) {
+                rows.add(project(row, select).get(0));
+            }
+        }
+        return rows;
+    }
+
+    private MockResponse upsertProgress(JsonArray rows) {
+        for (JsonElement element : rows) {
+            JsonObject row = element.getAsJsonObject();
+            progress.put(row.get("user_id").getAsString() + ":" + row.get("lesson_id").getAsString(), row);
+        }
+        return new MockResponse().setResponseCode(201);
+    }
+
+    /**
+     * Same contract as supabase/migrations/..._increment_user_score.sql
+     */
+    private MockResponse incrementScore(String userId, JsonObject args) {
+        if (userId == null || !userId.equals(args.get("user_id").getAsString())) {
+            return error(403, "42501", "score belongs to another user");
+        }
+        JsonObject user = users.get(userId);
+        synchronized (user) {
+            if (appliedIncrements.add(args.get("idempotency_key").getAsString())) {
+                user.addProperty("score", user.get("score").getAsInt() + args.get("delta").getAsInt());
+            }
+            return ok(user.get("score"));
+        }
+    }
+
+    private static JsonArray project(JsonObject row, String select) {
+        JsonArray rows = new JsonArray();
+        if (row == null) {
+            return rows;
+        }
+        if (select == null || select.equals("*")) {
+            rows.add(row.deepCopy());
+            return rows;
+        }
+        JsonObject projected = new JsonObject();
+        for (String column : select.split(",")) {
+            if (row.has(column)) {
+                projected.add(column, row.get(column));
+            }
+        }
+        rows.add(projected);
+        return rows;
+    }
+
+    // --- rest/v1 catalog tables: the PostgREST subset the app uses ---
+
+    /**
+     * @param prefix "" for the top-level table, "flashcards." for an embedded one
+     */
+    private JsonArray query(SyntheticCatalog.VirtualTable table, HttpUrl url, String prefix) {
+        int from = 0;
+        int to = table.size;
+        List<Filter> filters = new ArrayList<>();
+        Keyset keyset = null;
+        for (String name : url.queryParameterNames()) {
+            String value = url.queryParameter(name);
+            if (!name.startsWith(prefix) || name.indexOf('.', prefix.length()) >= 0) {
+                continue;
+            }
+            String column = name.substring(prefix.length());
+            switch (column) {
+                case "select":
+                case "order":
+                case "limit":
+                    break;
+                case "or":
+                    Matcher matcher = KEYSET.matcher(value);
+                    if (!matcher.matches()) {
+                        throw new IllegalArgumentException("Unsupported or filter " + value);
+                    }
+                    keyset = new Keyset(matcher.group(1), matcher.group(2), matcher.group(3));
+                    break;
+                default:
+                    Filter filter = Filter.parse(column, value);
+                    int[] range = "eq".equals(filter.operator) ? table.rangeWhere(column, filter.value) : null;
+                    if (range != null) {
+                        from = Math.max(from, range[0]);
+                        to = Math.min(to, range[1]);
+                    } else {
+                        filters.add(filter);
+                    }
+                    break;
+            }
+        }
+
+        String order = url.queryParameter(prefix + "order");
+        String limitParam = url.queryParameter(prefix + "limit");
+        int limit = limitParam != null ? Integer.parseInt(limitParam) : Integer.MAX_VALUE;
+        boolean naturalOrder = order == null || isNaturalOrder(order, from, to, table);
+        if (keyset != null) {
+            if (naturalOrder) {
+                // Rows past the cursor are a suffix of the range, find where it starts
+                from = firstAfter(table, keyset, from, to);
+            } else {
+                filters.add(keyset);
+            }
+        }
+
+        List<JsonObject> rows = new ArrayList<>();
+        for (int i = from; i < to && (!naturalOrder || rows.size() < limit); i++) {
+            JsonObject row = table.row(i);
+            if (matchesAll(row, filters)) {
+                rows.add(row);
+            }
+        }
+        if (!naturalOrder) {
+            rows.sort(comparator(order));
+            rows = rows.subList(0, Math.min(limit, rows.size()));
+        }
+
+        String select = url.queryParameter(prefix + "select");
+        JsonArray result = new JsonArray();
+        for (JsonObject row : rows) {
+            result.add(select(table, row, select != null ? select : "*", url, prefix));
+        }
+        return result;
+    }
+
+    /**
+     * Index order is order_index,id order within one parent, and updated_at,id order always
+     */
+    private static boolean isNaturalOrder(String order, int from, int to,
+                                          SyntheticCatalog.VirtualTable table) {
+        if (order.equals("updated_at.asc,id.asc") || order.equals("updated_at.asc")) {
+            return true;
+        }
+        boolean singleParent = table.parentColumn() == null
+                || (to - from) <= 0
+                || table.parentIndexOf(from) == table.parentIndexOf(to - 1);
+        return singleParent && (order.equals("order_index.asc,id.asc") || order.equals("order_index.asc"));
+    }
+
+    private static int firstAfter(SyntheticCatalog.VirtualTable table, Keyset keyset, int from, int to) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyset.matches(table.row(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private JsonObject select(SyntheticCatalog.VirtualTable table, JsonObject row, String select,
+                              HttpUrl url, String prefix) {
+        JsonObject projected = new JsonObject();
+        for (String item : splitTopLevel(select)) {
+            int paren = item.indexOf('(');
+            if (paren < 0) {
+                if (item.equals("*")) {
+                    for (Map.Entry<String, JsonElement> column : row.entrySet()) {
+                        projected.add(column.getKey(), column.getValue());
+                    }
+                } else if (row.has(item)) {
+                    projected.add(item, row.get(item));
+                }
+                continue;
+            }
+            String relation = item.substring(0, paren);
+            SyntheticCatalog.VirtualTable child = table.child(relation);
+            if (child == null) {
+                throw new IllegalArgumentException("Could not find a relationship between "
+                        + table.name + " and " + relation);
+            }
+            String nestedPrefix = prefix + relation + ".";
+            String nestedSelect = item.substring(paren + 1, item.length() - 1);
+            projected.add(relation, embedded(child, row.get("id").getAsString(), nestedSelect, url, nestedPrefix));
+        }
+        return projected;
+    }
+
+    private JsonArray embedded(SyntheticCatalog.VirtualTable child, String parentId, String select,
+                               HttpUrl url, String prefix) {
+        int[] range = child.rangeWhere(child.parentColumn(), parentId);
+        JsonArray rows = new JsonArray();
+        // Children are generated in order_index order, which is the only embedded order the app asks for
+        for (int i = range[0]; i < range[1]; i++) {
+            rows.add(select(child, child.row(i), select, url, prefix));
+        }
+        return rows;
+    }
+
+    private static List<String> splitTopLevel(String select) {
+        List<String> items = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < select.length(); i++) {
+            char c = select.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                items.add(select.substring(start, i));
+                start = i + 1;
+            }
+        }
+        items.add(select.substring(start));
+        return items;
+    }
+
+    private static boolean matchesAll(JsonObject row, List<Filter> filters) {
+        for (Filter filter : filters) {
+            if (!filter.matches(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Comparator<JsonObject> comparator(String order) {
+        Comparator<JsonObject> comparator = (a, b) -> 0;
+        for (String term : order.split(",")) {
+            String[] parts = term.split("\\.");
+            String column = parts[0];
+            boolean descending = parts.length > 1 && parts[1].equals("desc");
+            Comparator<JsonObject> byColumn = (a, b) -> compare(a.get(column), b.get(column).getAsString());
+            comparator = comparator.thenComparing(descending ? byColumn.reversed() : byColumn);
+        }
+        return comparator;
+    }
+
+    /**
+     * Numbers compare numerically, everything else (ids, ISO timestamps) as text
+     */
+    static int compare(JsonElement element, String value) {
+        if (element == null || element.isJsonNull()) {
+            return -1;
+        }
+        String actual = element.getAsString();
+        if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+            try {
+                return Double.compare(Double.parseDouble(actual), Double.parseDouble(value));
+            } catch (NumberFormatException ignored) {
+                // Compare as text below
+            }
+        }
+        return actual.compareTo(value);
+    }
+
+    private static String eqValue(HttpUrl url, String column) {
+        String value = url.queryParameter(column);
+        return value != null && value.startsWith("eq.") ? value.substring(3) : null;
+    }
+
+    private static JsonElement readJson(RecordedRequest request) {
+        return JsonParser.parseString(request.getBody().readUtf8());
+    }
+
+    private static MockResponse ok(JsonElement body) {
+        return json(200, body);
+    }
+
+    private static MockResponse error(int code, String pgrstCode, String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("code", pgrstCode);
+        body.addProperty("message", message);
+        return json(code, body);
+    }
+
+    private static MockResponse json(int code, JsonElement body) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body.toString());
+    }
+
+    private static class Filter {
+        final String column;
+        final String operator;
+        final String value;
+
+        Filter(String column, String operator, String value) {
+            this.column = column;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        static Filter parse(String column, String expression) {
+            int dot = expression.indexOf('.');
+            if (dot < 0) {
+                throw new IllegalArgumentException("Unsupported filter " + column + "=" + expression);
+            }
+            String value = expression.substring(dot + 1).replace("\"", "");
+            return new Filter(column, expression.substring(0, dot), value);
+        }
+
+        boolean matches(JsonObject row) {
+            int comparison = compare(row.get(column), value);
+            switch (operator) {
+                case "eq":
+                    return comparison == 0;
+                case "gt":
+                    return comparison > 0;
+                case "gte":
+                    return comparison >= 0;
+                case "lt":
+                    return comparison < 0;
+                case "lte":
+                    return comparison <= 0;
+                default:
+                    throw new IllegalArgumentException("Unsupported operator " + operator);
+            }
+        }
+    }
+
+    /**
+     * (column.gt.v,and(column.eq.v,id.gt.lastId)), as built by PostgrestQuery.after
+     */
+    private static final class Keyset extends Filter {
+        private final String lastId;
+
+        Keyset(String column, String value, String lastId) {
+            super(column, "gt", value);
+            this.lastId = lastId;
+        }
+
+        @Override
+        boolean matches(JsonObject row) {
+            int comparison = compare(row.get(column), value);
+            return comparison > 0 || (comparison == 0 && row.get("id").getAsString().compareTo(lastId) > 0);
+        }
+    }
+}
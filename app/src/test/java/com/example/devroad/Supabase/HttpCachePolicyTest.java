@@ -0,0 +1,72 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.Models.Cours;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * HttpCachePolicy with the disk cache against FakeSupabaseServer: unchanged catalog reads are
+ * revalidated with the server's ETag and served from the cache on 304.
+ */
+public class HttpCachePolicyTest {
+    @Rule
+    public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+    private FakeSupabaseServer server;
+    private SupabaseClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeSupabaseServer(new SyntheticCatalog(50, 4, 3, 5));
+        client = new SupabaseClient(server.baseUrl(), cacheDirectory.getRoot());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void unchangedContentIsServedFromCacheAfterA304() throws IOException {
+        Response<List<Cours>> first = getCourses();
+        assertEquals(200, first.raw().networkResponse().code());
+
+        Response<List<Cours>> second = getCourses();
+        assertEquals(304, second.raw().networkResponse().code());
+        assertNotNull(second.raw().cacheResponse());
+        assertEquals(first.body().size(), second.body().size());
+        assertEquals(first.body().get(0).getId(), second.body().get(0).getId());
+        assertEquals(1, client.getCachePolicy().getRevalidatedCount());
+    }
+
+    @Test
+    public void changedContentIsDownloadedAgain() throws IOException {
+        getCourses();
+        server.touchTable("cours");
+
+        Response<List<Cours>> afterWrite = getCourses();
+        assertEquals(200, afterWrite.raw().networkResponse().code());
+        assertEquals(0, client.getCachePolicy().getRevalidatedCount());
+    }
+
+    private Response<List<Cours>> getCourses() throws IOException {
+        Response<List<Cours>> response = client.getDataApi().getCourses(PostgrestQuery
+                .select("id", "title", "order_index")
+                .orderAsc("order_index").orderAsc("id").limit(20)
+                .toQueryMap()).execute();
+        assertEquals(200, response.code());
+        return response;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.ExercisePayload;
+import com.example.devroad.services.ExerciseGrader;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ModelTypeAdapters on malformed exercise rows: the payload is never null.
+ */
+public class ModelTypeAdaptersTest {
+
+    @Test
+    public void exerciseWithoutDataKeyGetsAnEmptyPayloadOfItsType() {
+        Exercise exercise = decode("{\"id\":\"e1\",\"type\":\"drag_drop\",\"question\":\"Match\",\"answer\":\"x\"}");
+
+        assertTrue(exercise.getPayload() instanceof ExercisePayload.DragDrop);
+        ExercisePayload.DragDrop payload = (ExercisePayload.DragDrop) exercise.getPayload();
+        assertTrue(payload.getItems().isEmpty());
+        assertTrue(payload.getTargets().isEmpty());
+        // Gradable without a crash: nothing to drop on, nothing dropped
+        assertTrue(ExerciseGrader.isCorrect(exercise, Collections.emptyList()));
+    }
+
+    @Test
+    public void exerciseWithNullDataGetsAnEmptyPayloadOfItsType() {
+        Exercise exercise = decode("{\"id\":\"e2\",\"type\":\"arrange_code\",\"data\":null}");
+
+        assertTrue(exercise.getPayload() instanceof ExercisePayload.ArrangeCode);
+        assertFalse(ExerciseGrader.isCorrect(exercise, Arrays.asList("int x = 1;")));
+    }
+
+    @Test
+    public void unknownTypeWithoutDataIsUnsupported() {
+        Exercise exercise = decode("{\"id\":\"e3\",\"type\":\"speak_aloud\"}");
+
+        assertTrue(exercise.getPayload() instanceof ExercisePayload.Unsupported);
+        assertEquals("speak_aloud", exercise.getPayload().getType());
+    }
+
+    private static Exercise decode(String json) {
+        return ModelTypeAdapters.getGson().fromJson(json, Exercise.class);
+    }
+}
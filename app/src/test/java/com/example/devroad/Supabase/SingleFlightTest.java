@@ -0,0 +1,145 @@
+package com.example.devroad.Supabase;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * SingleFlight: what followers get when they join a call that is already running.
+ */
+public class SingleFlightTest {
+    private static final String URL = "http://localhost/rest/v1/courses?select=id";
+
+    private final SingleFlight singleFlight = new SingleFlight(new RetryPolicy(false));
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    @Test
+    public void followerRunsItsOwnCallWhenTheLeaderIsInterrupted() throws Exception {
+        BlockingCall leaderCall = new BlockingCall();
+        Future<?> leader = threads.submit(() -> singleFlight.execute(leaderCall));
+        assertTrue(leaderCall.started.await(5, TimeUnit.SECONDS));
+
+        BlockingCall followerCall = new BlockingCall();
+        followerCall.release.countDown();
+        Future<Response<List<String>>> follower = threads.submit(() -> singleFlight.execute(followerCall));
+        awaitFollowers(1);
+
+        // e.g. LessonPrefetcher leaving the screen while a visible screen waits on the same URL
+        leader.cancel(true);
+
+        Response<List<String>> response = follower.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a", "b"), response.body());
+        assertEquals(1, followerCall.executions.get());
+        assertEquals(0, singleFlight.getSavedRequestCount());
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void followersGetTheirOwnCopyOfAListBody() throws Exception {
+        BlockingCall leaderCall = new BlockingCall();
+        Future<Response<List<String>>> leader = threads.submit(() -> singleFlight.execute(leaderCall));
+        assertTrue(leaderCall.started.await(5, TimeUnit.SECONDS));
+
+        BlockingCall followerCall = new BlockingCall();
+        Future<Response<List<String>>> follower = threads.submit(() -> singleFlight.execute(followerCall));
+        awaitFollowers(1);
+        leaderCall.release.countDown();
+
+        List<String> leaderBody = leader.get(5, TimeUnit.SECONDS).body();
+        List<String> followerBody = follower.get(5, TimeUnit.SECONDS).body();
+        assertEquals(leaderBody, followerBody);
+        assertNotSame(leaderBody, followerBody);
+        assertEquals(0, followerCall.executions.get());
+        threads.shutdownNow();
+    }
+
+    private void awaitFollowers(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getSavedRequestCount() < count) {
+            if (System.nanoTime() > deadline) {
+                fail("Follower never joined the in-flight call");
+            }
+            Thread.sleep(5);
+        }
+        // Let the follower get from counting to waiting on the shared result
+        Thread.sleep(50);
+    }
+
+    /**
+     * A GET that blocks until released, interruptibly, like OkHttp's execute()
+     */
+    private static class BlockingCall implements Call<List<String>> {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+        private volatile boolean canceled;
+
+        @Override
+        public Response<List<String>> execute() throws IOException {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted");
+            }
+            return Response.success(Arrays.asList("a", "b"));
+        }
+
+        @Override
+        public void enqueue(Callback<List<String>> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executions.get() > 0;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<List<String>> clone() {
+            return new BlockingCall();
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url(URL).build();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return new Timeout();
+        }
+    }
+}
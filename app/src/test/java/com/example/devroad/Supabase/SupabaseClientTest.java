@@ -0,0 +1,159 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.Models.Cours;
+import com.example.devroad.Models.ExercisePayload;
+import com.example.devroad.Models.LessonBundle;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * SupabaseClient against FakeSupabaseServer: queries, token refresh, retries and the circuit breaker.
+ */
+public class SupabaseClientTest {
+
+    private FakeSupabaseServer server;
+    private SupabaseClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeSupabaseServer(new SyntheticCatalog(50, 4, 3, 5));
+        client = new SupabaseClient(server.baseUrl(), null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void coursesArePagedByKeysetWithProjectedColumns() throws IOException {
+        List<Cours> first = body(client.getDataApi().getCourses(coursePage(null).toQueryMap()).execute());
+        assertEquals(20, first.size());
+        assertEquals("c-0000000", first.get(0).getId());
+        assertEquals("Course 0", first.get(0).getTitle());
+        // Not selected, so not downloaded
+        assertNull(first.get(0).getUpdatedAt());
+
+        Cours last = first.get(first.size() - 1);
+        List<Cours> second = body(client.getDataApi().getCourses(coursePage(last).toQueryMap()).execute());
+        assertEquals(20, second.size());
+        assertEquals("c-0000020", second.get(0).getId());
+
+        Cours secondLast = second.get(second.size() - 1);
+        List<Cours> third = body(client.getDataApi().getCourses(coursePage(secondLast).toQueryMap()).execute());
+        assertEquals(10, third.size());
+    }
+
+    @Test
+    public void lessonBundleEmbedsFlashcardsAndTypedExercises() throws IOException {
+        PostgrestQuery query = PostgrestQuery.select("id")
+                .eq("id", "l-0000007")
+                .embed("flashcards", PostgrestQuery.select("id", "lesson_id", "front_content", "back_content",
+                        "order_index").orderAsc("order_index"))
+                .embed("exercises", PostgrestQuery.select("id", "lesson_id", "type", "question", "data",
+                        "answer", "points", "order_index").orderAsc("order_index"));
+
+        List<LessonBundle> bundles = body(client.getDataApi().getLessonBundle(query.toQueryMap()).execute());
+        assertEquals(1, bundles.size());
+        LessonBundle bundle = bundles.get(0);
+        assertEquals(3, bundle.getFlashcards().size());
+        assertEquals(5, bundle.getExercises().size());
+        assertEquals(0, bundle.getExercises().get(0).getOrderIndex());
+        for (int i = 0; i < bundle.getExercises().size(); i++) {
+            ExercisePayload payload = bundle.getExercises().get(i).getPayload();
+            assertEquals(bundle.getExercises().get(i).getType(), payload.getType());
+            assertTrue(!(payload instanceof ExercisePayload.Unsupported));
+        }
+    }
+
+    @Test
+    public void expiredAccessTokenIsRefreshedAndTheRequestReplayed() throws IOException {
+        SupabaseClient.AuthResponse session = client.getAuthApi()
+                .signIn(new SupabaseClient.SignInRequest("ada@example.com", "secret")).execute().body();
+        client.setSession(session.accessToken, session.refreshToken);
+
+        server.expireAccessTokens();
+        List<Cours> courses = body(client.getDataApi().getCourses(coursePage(null).toQueryMap()).execute());
+
+        assertEquals(20, courses.size());
+        assertNotEquals(session.accessToken, client.getAccessToken());
+    }
+
+    @Test
+    public void scoreIncrementIsAppliedOncePerIdempotencyKey() throws IOException {
+        SupabaseClient.AuthResponse session = client.getAuthApi()
+                .signIn(new SupabaseClient.SignInRequest("ada@example.com", "secret")).execute().body();
+        client.setSession(session.accessToken, session.refreshToken);
+        String userId = session.user.id;
+
+        assertEquals(Integer.valueOf(30), body(client.getDataApi().incrementUserScore(
+                new SupabaseClient.ScoreIncrementRequest(userId, "lesson-1-completion", 30)).execute()));
+        // A retry of the same completion, e.g. after a lost response, is not counted again
+        assertEquals(Integer.valueOf(30), body(client.getDataApi().incrementUserScore(
+                new SupabaseClient.ScoreIncrementRequest(userId, "lesson-1-completion", 30)).execute()));
+        assertEquals(Integer.valueOf(50), body(client.getDataApi().incrementUserScore(
+                new SupabaseClient.ScoreIncrementRequest(userId, "lesson-2-completion", 20)).execute()));
+    }
+
+    @Test
+    public void transientFailuresAreRetried() throws IOException {
+        server.failNextRequests(2);
+
+        Response<List<Cours>> response = client.getSingleFlight()
+                .execute(client.getDataApi().getCourses(coursePage(null).toQueryMap()));
+
+        assertTrue(response.isSuccessful());
+        assertEquals(3, server.requestCount());
+    }
+
+    @Test
+    public void circuitOpensAndFailsFastDuringAnOutage() throws IOException {
+        server.setFailureRate(1.0);
+        int calls = 0;
+        try {
+            while (calls++ < 10) {
+                client.getRetryPolicy().execute(client.getDataApi().getCourses(coursePage(null).toQueryMap()));
+            }
+            fail("Circuit never opened");
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+            // Opened after enough consecutive failures
+        }
+        int requestsWhenOpened = server.requestCount();
+
+        long start = System.nanoTime();
+        try {
+            client.getRetryPolicy().execute(client.getDataApi().getCourses(coursePage(null).toQueryMap()));
+            fail("Expected the open circuit to fail the call");
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+            assertTrue(System.nanoTime() - start < 100_000_000L);
+        }
+        assertEquals(requestsWhenOpened, server.requestCount());
+    }
+
+    private static PostgrestQuery coursePage(Cours after) {
+        PostgrestQuery query = PostgrestQuery.select("id", "title", "description", "icon", "color",
+                "is_premium", "required_score", "order_index");
+        if (after != null) {
+            query.after("order_index", String.valueOf(after.getOrderIndex()), after.getId());
+        }
+        return query.orderAsc("order_index").orderAsc("id").limit(20);
+    }
+
+    private static <T> T body(Response<T> response) {
+        assertTrue("HTTP " + response.code(), response.isSuccessful());
+        return response.body();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.devroad.Supabase;
+
+import com.example.devroad.Models.Cours;
+import com.example.devroad.Models.Lesson;
+import com.example.devroad.Models.UserProgress;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Load test: many simulated devices, each with its own SupabaseClient, run a typical session
+ * (sign in, page the course list, open a course, open a lesson, save progress) concurrently
+ * against FakeSupabaseServer, then throughput and per-step latency are printed.
+ * Too slow for every unit test run, so it is skipped unless asked for:
+ *   ./gradlew testDebugUnitTest --tests '*SupabaseLoadTest' -Dload.run=true
+ * Sized by system properties, e.g. -Dload.sessions=500 -Dload.latencyMs=80
+ */
+public class SupabaseLoadTest {
+    private static final boolean RUN = Boolean.getBoolean("load.run");
+    private static final int SESSIONS = Integer.getInteger("load.sessions", 32);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int COURSES = Integer.getInteger("load.courses", 10_000);
+    private static final int LESSONS_PER_COURSE = Integer.getInteger("load.lessonsPerCourse", 2);
+    private static final int EXERCISES_PER_LESSON = Integer.getInteger("load.exercisesPerLesson", 5);
+    private static final long LATENCY_MS = Long.getLong("load.latencyMs", 20);
+    private static final long JITTER_MS = Long.getLong("load.jitterMs", 30);
+    private static final double FAILURE_RATE = Double.parseDouble(System.getProperty("load.failureRate", "0"));
+    private static final int COURSE_PAGES = 3;
+    private static final int PAGE_SIZE = 20;
+
+    private FakeSupabaseServer server;
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicInteger operations = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue("Load test skipped, run with -Dload.run=true", RUN);
+        // 10k courses and 100k exercises by default
+        server = new FakeSupabaseServer(new SyntheticCatalog(COURSES, LESSONS_PER_COURSE, 3, EXERCISES_PER_LESSON));
+        server.setLatency(LATENCY_MS, JITTER_MS);
+        server.setFailureRate(FAILURE_RATE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void concurrentSessions() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            int session = i;
+            sessions.add(pool.submit(() -> {
+                start.await();
+                runSession(session);
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> session : sessions) {
+            try {
+                session.get(5, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                failures.add(e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+        pool.shutdownNow();
+
+        report(elapsedMs, failures.size());
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " sessions failed, first: " + failures.get(0), failures.get(0));
+        }
+        assertEquals(SESSIONS * (4 + COURSE_PAGES), operations.get());
+    }
+
+    private void runSession(int session) throws IOException {
+        // One device: its own connection pool, tokens and retry state
+        SupabaseClient client = new SupabaseClient(server.baseUrl(), null);
+        Random random = new Random(session);
+
+        SupabaseClient.AuthResponse auth = timed("signIn", client.getAuthApi()
+                .signIn(new SupabaseClient.SignInRequest("user" + session + "@example.com", "secret")), client);
+        client.setSession(auth.accessToken, auth.refreshToken);
+
+        Cours after = null;
+        List<Cours> courses = Collections.emptyList();
+        for (int page = 0; page < COURSE_PAGES; page++) {
+            PostgrestQuery query = PostgrestQuery.select("id", "title", "description", "icon", "color",
+                    "is_premium", "required_score", "order_index");
+            if (after != null) {
+                query.after("order_index", String.valueOf(after.getOrderIndex()), after.getId());
+            }
+            courses = timed("coursesPage", client.getDataApi()
+                    .getCourses(query.orderAsc("order_index").orderAsc("id").limit(PAGE_SIZE).toQueryMap()), client);
+            after = courses.get(courses.size() - 1);
+        }
+
+        Cours course = courses.get(random.nextInt(courses.size()));
+        List<Lesson> lessons = timed("lessonsPage", client.getDataApi().getLessons(
+                PostgrestQuery.select("id", "cours_id", "title", "is_premium", "required_score", "order_index")
+                        .eq("cours_id", course.getId())
+                        .orderAsc("order_index").orderAsc("id").limit(PAGE_SIZE)
+                        .toQueryMap()), client);
+
+        Lesson lesson = lessons.get(random.nextInt(lessons.size()));
+        timed("lessonBundle", client.getDataApi().getLessonBundle(PostgrestQuery.select("id")
+                .eq("id", lesson.getId())
+                .embed("flashcards", PostgrestQuery.select("id", "lesson_id", "front_content", "back_content",
+                        "order_index").orderAsc("order_index"))
+                .embed("exercises", PostgrestQuery.select("id", "lesson_id", "type", "question", "data",
+                        "answer", "points", "order_index").orderAsc("order_index"))
+                .toQueryMap()), client);
+
+        UserProgress progress = new UserProgress();
+        progress.setUserId(auth.user.id);
+        progress.setLessonId(lesson.getId());
+        progress.setCompleted(true);
+        progress.setScore(10);
+        timed("saveProgress", client.getDataApi().upsertProgress(Collections.singletonList(progress)), client);
+    }
+
+    private <T> T timed(String operation, Call<T> call, SupabaseClient client) throws IOException {
+        long start = System.nanoTime();
+        Response<T> response = client.getSingleFlight().execute(call);
+        latencies.computeIfAbsent(operation, key -> new Histogram())
+                .record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!response.isSuccessful()) {
+            throw new IOException(operation + ": HTTP " + response.code());
+        }
+        operations.incrementAndGet();
+        return response.body();
+    }
+
+    private void report(long elapsedMs, int failedSessions) {
+        StringBuilder report = new StringBuilder()
+                .append("Load test: ").append(SESSIONS).append(" sessions, ")
+                .append(CONCURRENCY).append(" concurrent, ")
+                .append(LATENCY_MS).append("+").append(JITTER_MS).append("ms server latency, ")
+                .append(failedSessions).append(" failed\n")
+                .append("  ").append(operations.get()).append(" operations, ")
+                .append(server.requestCount()).append(" HTTP requests in ").append(elapsedMs).append("ms = ")
+                .append(elapsedMs == 0 ? 0 : operations.get() * 1000L / elapsedMs).append(" ops/s\n");
+        for (Map.Entry<String, Histogram> operation : new TreeMap<>(latencies).entrySet()) {
+            Histogram histogram = operation.getValue();
+            report.append(String.format("  %-13s n=%-6d p50=%-5d p95=%-5d p99=%-5d max=%dms%n",
+                    operation.getKey(), histogram.getCount(), histogram.percentile(0.50),
+                    histogram.percentile(0.95), histogram.percentile(0.99), histogram.getMax()));
+        }
+        System.out.print(report);
+    }
+}
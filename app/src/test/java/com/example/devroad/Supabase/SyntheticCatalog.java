@@ -0,0 +1,237 @@
+package com.example.devroad.Supabase;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * SyntheticCatalog - Deterministic course catalog served by FakeSupabaseServer.
+ * Rows are generated from their index when asked for instead of being stored, so a catalog
+ * of 10k courses and 100k exercises costs no heap. Within a table, index order is both
+ * order_index,id order (inside one parent) and updated_at,id order, which lets the server
+ * page by keyset with a binary search.
+ */
+final class SyntheticCatalog {
+    private static final long UPDATED_AT_EPOCH = 1735689600L; // 2025-01-01T00:00:00Z
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'+00:00'").withZone(ZoneOffset.UTC);
+    private static final String[] COLORS = {"#4CAF50", "#2196F3", "#FF9800", "#9C27B0", "#F44336"};
+    private static final String[] ICONS = {"☕", "🐍", "🌐", "🗄", "⚙"};
+    private static final String[] EXERCISE_TYPES = {
+            "multiple_choice", "drag_drop", "fill_blanks", "arrange_code"
+    };
+
+    final VirtualTable courses;
+    final VirtualTable lessons;
+    final VirtualTable flashcards;
+    final VirtualTable exercises;
+    private final Map<String, VirtualTable> tables = new HashMap<>();
+
+    SyntheticCatalog(int courseCount, int lessonsPerCourse, int flashcardsPerLesson, int exercisesPerLesson) {
+        courses = new VirtualTable("cours", "c", courseCount, null, null, 1, this::course);
+        lessons = new VirtualTable("lessons", "l", courseCount * lessonsPerCourse,
+                courses, "cours_id", lessonsPerCourse, this::lesson);
+        flashcards = new VirtualTable("flashcards", "f", lessons.size * flashcardsPerLesson,
+                lessons, "lesson_id", flashcardsPerLesson, this::flashcard);
+        exercises = new VirtualTable("exercises", "e", lessons.size * exercisesPerLesson,
+                lessons, "lesson_id", exercisesPerLesson, this::exercise);
+        for (VirtualTable table : new VirtualTable[]{courses, lessons, flashcards, exercises}) {
+            tables.put(table.name, table);
+        }
+    }
+
+    /**
+     * @return the table, or null if the catalog does not have it
+     */
+    VirtualTable table(String name) {
+        return tables.get(name);
+    }
+
+    private JsonObject course(int index) {
+        JsonObject row = new JsonObject();
+        row.addProperty("id", courses.idOf(index));
+        row.addProperty("title", "Course " + index);
+        row.addProperty("description", "Learn topic " + index + " step by step, from the basics"
+                + " to writing real programs, with flashcards and hands-on exercises.");
+        row.addProperty("icon", ICONS[index % ICONS.length]);
+        row.addProperty("color", COLORS[index % COLORS.length]);
+        boolean premium = index % 5 == 4;
+        row.addProperty("is_premium", premium);
+        row.addProperty("required_score", premium ? 100 * (index % 10) : 0);
+        row.addProperty("order_index", index);
+        addTimestamps(row, index);
+        return row;
+    }
+
+    private JsonObject lesson(int index) {
+        JsonObject row = new JsonObject();
+        row.addProperty("id", lessons.idOf(index));
+        row.addProperty("cours_id", courses.idOf(lessons.parentIndexOf(index)));
+        row.addProperty("title", "Lesson " + lessons.positionInParent(index));
+        boolean premium = lessons.positionInParent(index) >= 3;
+        row.addProperty("is_premium", premium);
+        row.addProperty("required_score", premium ? 50 : 0);
+        row.addProperty("order_index", lessons.positionInParent(index));
+        addTimestamps(row, index);
+        return row;
+    }
+
+    private JsonObject flashcard(int index) {
+        JsonObject row = new JsonObject();
+        row.addProperty("id", flashcards.idOf(index));
+        row.addProperty("lesson_id", lessons.idOf(flashcards.parentIndexOf(index)));
+        row.addProperty("front_content", "What does keyword " + index + " do?");
+        row.addProperty("back_content", "Keyword " + index + " declares something useful.");
+        row.addProperty("order_index", flashcards.positionInParent(index));
+        addTimestamps(row, index);
+        return row;
+    }
+
+    private JsonObject exercise(int index) {
+        String type = EXERCISE_TYPES[index % EXERCISE_TYPES.length];
+        JsonObject row = new JsonObject();
+        row.addProperty("id", exercises.idOf(index));
+        row.addProperty("lesson_id", lessons.idOf(exercises.parentIndexOf(index)));
+        row.addProperty("type", type);
+        row.addProperty("question", "Question " + index);
+        JsonObject data = new JsonObject();
+        switch (type) {
+            case "multiple_choice":
+                data.add("options", strings("A" + index, "B" + index, "C" + index, "D" + index));
+                row.addProperty("answer", "A" + index);
+                break;
+            case "drag_drop":
+                data.add("items", strings("int", "String", "boolean"));
+                data.add("targets", strings("42", "\"text\"", "true"));
+                row.addProperty("answer", "int,String,boolean");
+                break;
+            case "fill_blanks":
+                JsonObject blank = new JsonObject();
+                blank.addProperty("text", "A ___ holds a value");
+                blank.add("options", strings("variable", "loop"));
+                JsonArray blanks = new JsonArray();
+                blanks.add(blank);
+                data.add("blanks", blanks);
+                row.addProperty("answer", "variable");
+                break;
+            default:
+                data.add("lines", strings("int x = 1;", "x++;", "print(x);"));
+                row.addProperty("answer", "int x = 1;,x++;,print(x);");
+                break;
+        }
+        row.add("data", data);
+        row.addProperty("points", 10);
+        row.addProperty("order_index", exercises.positionInParent(index));
+        addTimestamps(row, index);
+        return row;
+    }
+
+    // created_at is never selected by the app; it is here so select=* costs what it would
+    private static void addTimestamps(JsonObject row, int index) {
+        String timestamp = TIMESTAMP.format(Instant.ofEpochSecond(UPDATED_AT_EPOCH + index));
+        row.addProperty("created_at", timestamp);
+        row.addProperty("updated_at", timestamp);
+    }
+
+    private static JsonArray strings(String... values) {
+        JsonArray array = new JsonArray();
+        for (String value : values) {
+            array.add(value);
+        }
+        return array;
+    }
+
+    /**
+     * A table whose rows are computed from their index. Ids are the prefix plus the zero-padded
+     * index, so they sort like the index and map back to it without a lookup.
+     */
+    static final class VirtualTable {
+        final String name;
+        final int size;
+        private final String prefix;
+        private final VirtualTable parent;
+        private final String parentColumn;
+        private final int perParent;
+        private final IntFunction<JsonObject> generator;
+        private final Map<String, VirtualTable> children = new HashMap<>();
+
+        VirtualTable(String name, String prefix, int size, VirtualTable parent, String parentColumn,
+                     int perParent, IntFunction<JsonObject> generator) {
+            this.name = name;
+            this.prefix = prefix;
+            this.size = size;
+            this.parent = parent;
+            this.parentColumn = parentColumn;
+            this.perParent = perParent;
+            this.generator = generator;
+            if (parent != null) {
+                parent.children.put(name, this);
+            }
+        }
+
+        JsonObject row(int index) {
+            return generator.apply(index);
+        }
+
+        String idOf(int index) {
+            return String.format("%s-%07d", prefix, index);
+        }
+
+        /**
+         * @return the index behind an id of this table, or -1
+         */
+        int indexOf(String id) {
+            if (id == null || !id.startsWith(prefix + "-")) {
+                return -1;
+            }
+            try {
+                int index = Integer.parseInt(id.substring(prefix.length() + 1));
+                return index < size ? index : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        int parentIndexOf(int index) {
+            return index / perParent;
+        }
+
+        int positionInParent(int index) {
+            return index % perParent;
+        }
+
+        /**
+         * Index range [from, to) of the rows where column equals value, or null when the
+         * column is not one this table can look up directly
+         */
+        int[] rangeWhere(String column, String value) {
+            if ("id".equals(column)) {
+                int index = indexOf(value);
+                return index < 0 ? new int[]{0, 0} : new int[]{index, index + 1};
+            }
+            if (parent != null && column.equals(parentColumn)) {
+                int parentIndex = parent.indexOf(value);
+                return parentIndex < 0 ? new int[]{0, 0}
+                        : new int[]{parentIndex * perParent, (parentIndex + 1) * perParent};
+            }
+            return null;
+        }
+
+        /**
+         * Embeddable child table, e.g. lessons -> flashcards, or null
+         */
+        VirtualTable child(String relation) {
+            return children.get(relation);
+        }
+
+        String parentColumn() {
+            return parentColumn;
+        }
+    }
+}
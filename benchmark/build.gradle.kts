@@ -0,0 +1,42 @@
+// JMH benchmarks for the app's pure-JVM code: model decoding and exercise grading.
+//   ./gradlew :benchmark:jmh                          results/current.json
+//   ./gradlew :benchmark:jmh -PbenchmarkLabel=1.1     results/1.1.json, to keep and diff per release
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            // Compiled straight from the app module, so the benchmarks measure the shipped code
+            srcDir("../app/src/main/java")
+            include("com/example/devroad/Models/**")
+            include("com/example/devroad/Supabase/ModelTypeAdapters.java")
+            include("com/example/devroad/services/ExerciseGrader.java")
+        }
+    }
+}
+
+dependencies {
+    // Same version as the app
+    implementation("com.google.code.gson:gson:2.10.1")
+}
+
+val benchmarkLabel = providers.gradleProperty("benchmarkLabel").getOrElse("current")
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(2)
+    warmupIterations.set(5)
+    iterations.set(10)
+    // Adds gc.alloc.rate.norm: bytes allocated per operation
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.projectDirectory.file("results/$benchmarkLabel.json"))
+}
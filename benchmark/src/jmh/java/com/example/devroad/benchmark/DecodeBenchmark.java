@@ -0,0 +1,87 @@
+package com.example.devroad.benchmark;
+
+import com.example.devroad.Models.Cours;
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Supabase.ModelTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DecodeBenchmark - Decoding one page of PostgREST rows through the app's Gson, the way
+ * Retrofit's converter reads a response body. Scores are per decoded row: with the gc
+ * profiler, gc.alloc.rate.norm is the bytes allocated per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(Fixtures.ROWS)
+public class DecodeBenchmark {
+
+    private Gson gson;
+    private TypeAdapter<List<Cours>> coursesAdapter;
+    private TypeAdapter<List<Exercise>> exercisesAdapter;
+    private String coursesPage;
+    private String exercises;
+    private String exercisesDataFirst;
+
+    @Setup
+    public void setUp() throws IOException {
+        gson = ModelTypeAdapters.getGson();
+        coursesAdapter = gson.getAdapter(new TypeToken<List<Cours>>() {});
+        exercisesAdapter = gson.getAdapter(new TypeToken<List<Exercise>>() {});
+        coursesPage = Fixtures.load(Fixtures.COURSES_PAGE);
+        exercises = Fixtures.load(Fixtures.EXERCISES);
+        exercisesDataFirst = Fixtures.load(Fixtures.EXERCISES_DATA_FIRST);
+
+        // Per-row scores are only right if every fixture is exactly one page
+        checkRows(decode(coursesAdapter, coursesPage));
+        checkRows(decode(exercisesAdapter, exercises));
+        checkRows(decode(exercisesAdapter, exercisesDataFirst));
+    }
+
+    @Benchmark
+    public List<Cours> coursesPage() throws IOException {
+        return decode(coursesAdapter, coursesPage);
+    }
+
+    /**
+     * type comes before data, so each payload is decoded straight off the reader
+     */
+    @Benchmark
+    public List<Exercise> exercises() throws IOException {
+        return decode(exercisesAdapter, exercises);
+    }
+
+    /**
+     * data comes before type, so each payload is buffered as a JsonElement and read again
+     */
+    @Benchmark
+    public List<Exercise> exercisesDataFirst() throws IOException {
+        return decode(exercisesAdapter, exercisesDataFirst);
+    }
+
+    private <T> T decode(TypeAdapter<T> adapter, String json) throws IOException {
+        return adapter.read(gson.newJsonReader(new StringReader(json)));
+    }
+
+    private static void checkRows(List<?> rows) {
+        if (rows.size() != Fixtures.ROWS) {
+            throw new IllegalStateException("Fixture has " + rows.size() + " rows, expected " + Fixtures.ROWS);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.devroad.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixtures - PostgREST response bodies captured in the shape the app receives them: the
+ * columns ContentRepository selects, in select order, rows joined the way json_agg joins them.
+ * Each fixture is one page of ROWS rows.
+ */
+final class Fixtures {
+    /** ContentRepository.PAGE_SIZE */
+    static final int ROWS = 20;
+
+    /** cours?select=id,title,description,icon,color,is_premium,required_score,order_index */
+    static final String COURSES_PAGE = "postgrest/courses_page.json";
+    /** exercises?select=id,lesson_id,type,question,data,answer,points,order_index */
+    static final String EXERCISES = "postgrest/exercises.json";
+    /** The same exercises with data ahead of type, which the adapter has to buffer */
+    static final String EXERCISES_DATA_FIRST = "postgrest/exercises_data_first.json";
+
+    private Fixtures() {
+    }
+
+    static String load(String name) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.devroad.benchmark;
+
+import com.example.devroad.Models.Exercise;
+import com.example.devroad.Models.ExercisePayload;
+import com.example.devroad.Supabase.ModelTypeAdapters;
+import com.example.devroad.services.ExerciseGrader;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GradeBenchmark - ExerciseGrader over a lesson's exercises (all four types), with the
+ * responses ExerciseActivity would read off the screen. Scores are per graded exercise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(Fixtures.ROWS)
+public class GradeBenchmark {
+
+    private List<Exercise> exercises;
+    private List<List<String>> correctResponses;
+    private List<List<String>> wrongResponses;
+
+    @Setup
+    public void setUp() {
+        exercises = ModelTypeAdapters.getGson().fromJson(Fixtures.load(Fixtures.EXERCISES),
+                new TypeToken<List<Exercise>>() {}.getType());
+        correctResponses = new ArrayList<>();
+        wrongResponses = new ArrayList<>();
+        for (Exercise exercise : exercises) {
+            correctResponses.add(correctResponse(exercise));
+            wrongResponses.add(wrongResponse(exercise));
+        }
+
+        // Make sure the fixtures exercise both outcomes, apart from the simplified fill_blanks check
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise exercise = exercises.get(i);
+            if (ExercisePayload.TYPE_FILL_BLANKS.equals(exercise.getType())) {
+                continue;
+            }
+            if (!ExerciseGrader.isCorrect(exercise, correctResponses.get(i))
+                    || ExerciseGrader.isCorrect(exercise, wrongResponses.get(i))) {
+                throw new IllegalStateException("Unexpected grade for " + exercise.getType());
+            }
+        }
+    }
+
+    @Benchmark
+    public int correctAnswers() {
+        return grade(correctResponses);
+    }
+
+    @Benchmark
+    public int wrongAnswers() {
+        return grade(wrongResponses);
+    }
+
+    private int grade(List<List<String>> responses) {
+        int correct = 0;
+        for (int i = 0; i < exercises.size(); i++) {
+            if (ExerciseGrader.isCorrect(exercises.get(i), responses.get(i))) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private static List<String> correctResponse(Exercise exercise) {
+        ExercisePayload payload = exercise.getPayload();
+        switch (exercise.getType()) {
+            case ExercisePayload.TYPE_MULTIPLE_CHOICE:
+                return Collections.singletonList(exercise.getAnswer());
+            case ExercisePayload.TYPE_DRAG_DROP:
+                return new ArrayList<>(((ExercisePayload.DragDrop) payload).getItems());
+            case ExercisePayload.TYPE_FILL_BLANKS:
+                List<String> selected = new ArrayList<>();
+                for (ExercisePayload.Blank blank : ((ExercisePayload.FillBlanks) payload).getBlanks()) {
+                    selected.add(blank.getOptions().get(0));
+                }
+                return selected;
+            default:
+                return new ArrayList<>(((ExercisePayload.ArrangeCode) payload).getLines());
+        }
+    }
+
+    private static List<String> wrongResponse(Exercise exercise) {
+        List<String> response = new ArrayList<>(correctResponse(exercise));
+        switch (exercise.getType()) {
+            case ExercisePayload.TYPE_MULTIPLE_CHOICE:
+                response.set(0, response.get(0) + "?");
+                break;
+            case ExercisePayload.TYPE_DRAG_DROP:
+                // Last target left empty
+                response.set(response.size() - 1, null);
+                break;
+            case ExercisePayload.TYPE_ARRANGE_CODE:
+                // Only the last two lines swapped, so the check has to walk the whole list
+                Collections.swap(response, response.size() - 2, response.size() - 1);
+                break;
+            default:
+                break;
+        }
+        return response;
+    }
+}
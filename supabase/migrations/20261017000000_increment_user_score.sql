@@ -0,0 +1,49 @@
+-- Atomic, idempotent score increments for the app's ProgressOutbox.
+-- POST /rest/v1/rpc/increment_user_score {"user_id": ..., "idempotency_key": ..., "delta": ...}
+-- returns the user's score after the increment. Replaying a key adds nothing and returns the
+-- current score, so the client can retry freely; concurrent sessions never overwrite each other.
+
+create table if not exists public.score_increments (
+    key text primary key,
+    user_id uuid not null references public.users (id) on delete cascade,
+    amount integer not null,
+    created_at timestamptz not null default now()
+);
+
+-- Only written through the function below
+alter table public.score_increments enable row level security;
+
+create or replace function public.increment_user_score(user_id uuid, idempotency_key text, delta integer)
+returns integer
+language plpgsql
+security definer
+set search_path = public
+as $$
+declare
+    new_total integer;
+begin
+    if user_id is distinct from auth.uid() then
+        raise exception 'score belongs to another user' using errcode = '42501';
+    end if;
+    if delta < 0 then
+        raise exception 'delta must not be negative' using errcode = '22023';
+    end if;
+
+    -- A concurrent call with the same key waits here until the first one commits
+    insert into score_increments (key, user_id, amount)
+    values (idempotency_key, increment_user_score.user_id, delta)
+    on conflict (key) do nothing;
+
+    if found then
+        update users set score = coalesce(score, 0) + delta
+        where id = increment_user_score.user_id
+        returning score into new_total;
+    else
+        select score into new_total from users where id = increment_user_score.user_id;
+    end if;
+    return new_total;
+end;
+$$;
+
+revoke all on function public.increment_user_score(uuid, text, integer) from public;
+grant execute on function public.increment_user_score(uuid, text, integer) to authenticated;
@@ -0,0 +1,89 @@
+-- Server side of the app's ContentSync delta sync over the course catalog.
+-- Every catalog row carries an updated_at kept current by a trigger, so the client can ask for
+-- rows with (updated_at, id) past its mark: ?updated_at=gte.<mark>&order=updated_at.asc,id.asc
+-- Deleted rows leave a tombstone in content_deletions, read the same way by (deleted_at, row_id).
+-- The client re-reads a short window behind its marks, so rows from transactions that commit
+-- out of order are still picked up.
+
+-- updated_at, maintained on every insert and update
+
+create or replace function public.touch_updated_at()
+returns trigger
+language plpgsql
+as $$
+begin
+    new.updated_at := now();
+    return new;
+end;
+$$;
+
+alter table public.cours add column if not exists updated_at timestamptz not null default now();
+alter table public.lessons add column if not exists updated_at timestamptz not null default now();
+alter table public.flashcards add column if not exists updated_at timestamptz not null default now();
+alter table public.exercises add column if not exists updated_at timestamptz not null default now();
+
+drop trigger if exists cours_touch_updated_at on public.cours;
+create trigger cours_touch_updated_at before insert or update on public.cours
+    for each row execute function public.touch_updated_at();
+drop trigger if exists lessons_touch_updated_at on public.lessons;
+create trigger lessons_touch_updated_at before insert or update on public.lessons
+    for each row execute function public.touch_updated_at();
+drop trigger if exists flashcards_touch_updated_at on public.flashcards;
+create trigger flashcards_touch_updated_at before insert or update on public.flashcards
+    for each row execute function public.touch_updated_at();
+drop trigger if exists exercises_touch_updated_at on public.exercises;
+create trigger exercises_touch_updated_at before insert or update on public.exercises
+    for each row execute function public.touch_updated_at();
+
+-- Keyset order of the delta queries
+create index if not exists cours_updated_at_id_idx on public.cours (updated_at, id);
+create index if not exists lessons_updated_at_id_idx on public.lessons (updated_at, id);
+create index if not exists flashcards_updated_at_id_idx on public.flashcards (updated_at, id);
+create index if not exists exercises_updated_at_id_idx on public.exercises (updated_at, id);
+
+-- Tombstones
+
+create table if not exists public.content_deletions (
+    table_name text not null,
+    row_id text not null,
+    deleted_at timestamptz not null default now(),
+    primary key (table_name, deleted_at, row_id)
+);
+
+alter table public.content_deletions enable row level security;
+
+-- Readable like the catalog itself; only written by the trigger below
+drop policy if exists "Content deletions are readable by everyone" on public.content_deletions;
+create policy "Content deletions are readable by everyone" on public.content_deletions
+    for select using (true);
+grant select on public.content_deletions to anon, authenticated;
+
+create or replace function public.record_content_deletion()
+returns trigger
+language plpgsql
+security definer
+set search_path = public
+as $$
+begin
+    insert into content_deletions (table_name, row_id)
+    values (tg_table_name, old.id::text)
+    on conflict do nothing;
+    return old;
+end;
+$$;
+
+revoke all on function public.record_content_deletion() from public;
+
+-- Also fires for rows removed by on delete cascade, e.g. the lessons of a deleted course
+drop trigger if exists cours_record_deletion on public.cours;
+create trigger cours_record_deletion after delete on public.cours
+    for each row execute function public.record_content_deletion();
+drop trigger if exists lessons_record_deletion on public.lessons;
+create trigger lessons_record_deletion after delete on public.lessons
+    for each row execute function public.record_content_deletion();
+drop trigger if exists flashcards_record_deletion on public.flashcards;
+create trigger flashcards_record_deletion after delete on public.flashcards
+    for each row execute function public.record_content_deletion();
+drop trigger if exists exercises_record_deletion on public.exercises;
+create trigger exercises_record_deletion after delete on public.exercises
+    for each row execute function public.record_content_deletion();
@@ -0,0 +1,80 @@
+-- HTTP validators for the catalog reads the app caches on disk (HttpCachePolicy).
+-- PostgREST sends no ETag or Last-Modified, so OkHttp would have nothing to revalidate with and
+-- every read would download the full body again. Each catalog table gets a version number that
+-- any write to it bumps; a PostgREST pre-request function sends it as a weak ETag on every GET
+-- and answers 304 when the client's If-None-Match still matches.
+-- The ETag combines the versions of all four tables, because a read of lessons can embed
+-- flashcards and exercises. Any catalog write therefore invalidates every cached read, which is
+-- coarse but never serves stale rows, and catalog edits are rare.
+
+create table if not exists public.content_versions (
+    table_name text primary key,
+    version bigint not null default 0
+);
+
+insert into public.content_versions (table_name)
+values ('cours'), ('lessons'), ('flashcards'), ('exercises')
+on conflict do nothing;
+
+-- Only read and written by the functions below
+alter table public.content_versions enable row level security;
+
+create or replace function public.bump_content_version()
+returns trigger
+language plpgsql
+security definer
+set search_path = public
+as $$
+begin
+    update content_versions set version = version + 1 where table_name = tg_table_name;
+    return null;
+end;
+$$;
+
+revoke all on function public.bump_content_version() from public;
+
+-- Per statement, so a bulk import bumps the version once
+drop trigger if exists cours_bump_content_version on public.cours;
+create trigger cours_bump_content_version after insert or update or delete or truncate on public.cours
+    for each statement execute function public.bump_content_version();
+drop trigger if exists lessons_bump_content_version on public.lessons;
+create trigger lessons_bump_content_version after insert or update or delete or truncate on public.lessons
+    for each statement execute function public.bump_content_version();
+drop trigger if exists flashcards_bump_content_version on public.flashcards;
+create trigger flashcards_bump_content_version after insert or update or delete or truncate on public.flashcards
+    for each statement execute function public.bump_content_version();
+drop trigger if exists exercises_bump_content_version on public.exercises;
+create trigger exercises_bump_content_version after insert or update or delete or truncate on public.exercises
+    for each statement execute function public.bump_content_version();
+
+create or replace function public.content_etag_check()
+returns void
+language plpgsql
+security definer
+set search_path = public
+as $$
+declare
+    resource text := ltrim(current_setting('request.path', true), '/');
+    etag text;
+begin
+    if current_setting('request.method', true) is distinct from 'GET'
+            or coalesce(resource, '') not in ('cours', 'lessons', 'flashcards', 'exercises') then
+        return;
+    end if;
+    select 'W/"catalog-' || string_agg(version::text, '.' order by table_name) || '"' into etag
+    from content_versions;
+
+    if current_setting('request.headers', true)::json ->> 'if-none-match' = etag then
+        raise sqlstate 'PGRST' using
+            message = json_build_object('code', 'DEVROAD304', 'message', 'Not Modified')::text,
+            detail = json_build_object('status', 304, 'headers', json_build_object('ETag', etag))::text;
+    end if;
+    perform set_config('response.headers', json_build_array(json_build_object('ETag', etag))::text, true);
+end;
+$$;
+
+grant execute on function public.content_etag_check() to anon, authenticated;
+
+-- Replaces any previous pre-request function; chain it from content_etag_check if there is one
+alter role authenticator set pgrst.db_pre_request = 'public.content_etag_check';
+notify pgrst, 'reload config';